@@ -42,11 +42,15 @@ public class GameController {
 	 * Movement controller used to handle all of the players movement throughout
 	 * the board.
 	 *
-	 * Movement is controlled by a recursive brute force(maybe greedy?)
-	 * algorithm
+	 * Movement is controlled by a breadth first search over the board
 	 */
 	private final MovementController MOVEMENT_CONTROLLER;
 
+	/**
+	 * Dice rolled by the players to move around the board
+	 */
+	private final Dice DICE;
+
 	/**
 	 * 2D array of Tile objects, representing the board
 	 */
@@ -61,9 +65,21 @@ public class GameController {
 	private boolean everyoneLost = false;
 
 	/**
-	 * Constructor for the {@link GameController} class
+	 * Constructor for the {@link GameController} class, played with a single
+	 * six sided die
 	 */
 	public GameController() {
+		this(new Dice());
+	}
+
+	/**
+	 * Constructor for the {@link GameController} class
+	 *
+	 * @param dice
+	 *            Dice rolled by the players to move
+	 */
+	public GameController(Dice dice) {
+		this.DICE = dice;
 		this.UI = new UI();
 		this.ENTITIES = new Entities();
 		this.BOARD = ENTITIES.getBoard();
@@ -73,6 +89,9 @@ public class GameController {
 		/* Assign board to movement controller */
 		this.MOVEMENT_CONTROLLER = new MovementController(BOARD);
 
+		/* Load or build the movement tables now rather than on the first move */
+		BOARD.getReachabilityTables();
+
 	}
 
 	/**
@@ -98,6 +117,7 @@ public class GameController {
 		 */
 		chooseSolutionCards();
 		dealCards();
+		ENTITIES.initDeductions();
 		distributeWeapons();
 
 		// Begin the game loop
@@ -136,6 +156,7 @@ public class GameController {
 			// Gets the current player and sets that player as the current
 			// player so can be coloured on board
 			currentPlayer = ENTITIES.getPlayer(playerTurn % playerCount);
+			BOARD.getLocations().setTurn(playerTurn % playerCount);
 			if (currentPlayer.isAlive()) {
 				currentPlayer.setIsCurrentPlayer(true);
 
@@ -187,7 +208,7 @@ public class GameController {
 					if (makeAccusation(currentPlayer)) {
 						isGameOver = true;
 					} else {
-						currentPlayer.setAlive(false);
+						BOARD.getLocations().setAlive(currentPlayer, false);
 					}
 				} else if (choice == 4) {
 					// Case where the player has chosen to make a suggestion,
@@ -261,27 +282,21 @@ public class GameController {
 	 * @param assignedRoom Room that the player is being randomly assigned to
 	 */
 	private void randomAssignToRoom(Player player, Room assignedRoom) {
-		ArrayList<Tile> connectingRoomTiles = assignedRoom.getTiles();
-		Collections.shuffle(connectingRoomTiles);
+		Tile t = assignedRoom.getRandomFreeSlot(DICE.getRandom());
+		if (t != null) {
 
-		for (Tile t : connectingRoomTiles) {
-			if (t.isRoomTile() && !t.isWallTile() && !t.isOccupied()) {
+			// Disassociate old tile with player
+			tiles[player.getXPos()][player.getYPos()].setPlayer(null);
 
-				// Disassociate old tile with player
-				tiles[player.getXPos()][player.getYPos()].setPlayer(null);
+			// update xy position
+			player.setXPos(t.getX());
+			player.setYPos(t.getY());
+			Tile currentTile = tiles[player.getXPos()][player.getYPos()];
 
-				// update xy position
-				player.setXPos(t.getX());
-				player.setYPos(t.getY());
-				Tile currentTile = tiles[player.getXPos()][player.getYPos()];
-
-				// Associate new tile with the player and update if the player
-				// is in a room or not
-				currentTile.setPlayer(player);
-				player.setRoom(assignedRoom);
-
-				break;
-			}
+			// Associate new tile with the player and update if the player
+			// is in a room or not
+			currentTile.setPlayer(player);
+			player.setRoom(assignedRoom);
 		}
 	}
 
@@ -373,12 +388,13 @@ public class GameController {
 	}
 
 	/**
-	 * Rolls the dice for a player, returning a value between 1 - 6
+	 * Rolls the dice for a player, returning a value between the lowest and
+	 * highest total of the dice (1 - 6 for the standard die)
 	 *
-	 * @return integer 1 - 6
+	 * @return total of the dice
 	 */
 	public int rollDice() {
-		return (int) (Math.random() * 6 + 1);
+		return DICE.roll();
 	}
 
 	/**
@@ -394,18 +410,9 @@ public class GameController {
 		ENTITIES.setPlayers(players);
 		ENTITIES.setFinalPlayers(players);
 
-		// Gets the list of tiles from the Entities class to set player
-		// locations to tile
-		for (int i = 0; i < tiles.length; i++) {
-			for (int j = 0; j < tiles[0].length; j++) {
-				for (Player p : players) {
-
-					// assigns a player to a tile location
-					if (p.getXPos() == i && p.getYPos() == j) {
-						tiles[i][j].setPlayer(p);
-					}
-				}
-			}
+		// assigns each player to the tile at their starting location
+		for (Player p : players) {
+			tiles[p.getXPos()][p.getYPos()].setPlayer(p);
 		}
 	}
 
@@ -423,13 +430,13 @@ public class GameController {
 		// valid solution
 		for (Card card : ENTITIES.getCards()) {
 			if (!room && card.getType().equals("Room")) {
-				ENTITIES.getWinningCards().add(card);
+				ENTITIES.addWinningCard(card);
 				room = true;
 			} else if (!character && card.getType().equals("Character")) {
-				ENTITIES.getWinningCards().add(card);
+				ENTITIES.addWinningCard(card);
 				character = true;
 			} else if (!weapon && card.getType().equals("Weapon")) {
-				ENTITIES.getWinningCards().add(card);
+				ENTITIES.addWinningCard(card);
 				weapon = true;
 			}
 		}
@@ -453,7 +460,7 @@ public class GameController {
 				if (count >= size / playerCount) {
 					break;
 				}
-				player.getCards().add(card);
+				player.addCard(card);
 				cardsDealt.add(card);
 				count++;
 
@@ -479,7 +486,7 @@ public class GameController {
 			if (remainingWeapons.isEmpty())
 				break;
 			if (!room.getKey().equals("Pool")) {
-				room.getValue().addWeaponToAvailableTile(ENTITIES.getBoard().getTiles(), remainingWeapons.get(0));
+				room.getValue().addWeaponToAvailableTile(ENTITIES.getBoard(), remainingWeapons.get(0));
 				remainingWeapons.remove(0);
 			}
 		}
@@ -505,24 +512,37 @@ public class GameController {
 
 		suggestion.getPlayer().setIsCurrentPlayer(false);
 
+		int suggested = suggestion.getCardMask();
+
 		// loops through all the players to see if any have a matching card to
 		// the player's suggestion
 		while (count < playerCount && !found) {
 			Player nextPlayer = ENTITIES.getPlayer((index + count) % playerCount);
 
-			// Checks for matching characters, then rooms and finally weapons,
-			// this is not worth randomising
-			if (nextPlayer.containsCardWithName(suggestion.getPlayer().getName())) {
-				suggestingPlayer.getSuggestions().add(new Card(suggestion.getPlayer().getName(), "Character"));
-				playerRoom.addPlayerToAvailableTile(ENTITIES.getBoard().getTiles(), suggestion.getPlayer());
+			// A single check of the whole hand first, as most players can't
+			// refute. Then checks for matching characters, then rooms and
+			// finally weapons, this is not worth randomising
+			if (!nextPlayer.holdsAny(suggested)) {
+				// everyone sees that this player has none of the cards
+				ENTITIES.getDeductions().cannotRefute(nextPlayer, suggested);
+				count++;
+			} else if (nextPlayer.containsCardWithName(suggestion.getPlayer().getName())) {
+				Card card = new Card(suggestion.getPlayer().getName(), "Character");
+				suggestingPlayer.addSuggestion(card);
+				ENTITIES.getDeductions().refuted(suggestingPlayer, nextPlayer, card, suggested);
+				playerRoom.addPlayerToAvailableTile(ENTITIES.getBoard(), suggestion.getPlayer());
 				found = true;
 			} else if (nextPlayer.containsCardWithName(suggestion.getRoom().getName())) {
-				suggestingPlayer.getSuggestions().add(new Card(suggestion.getRoom().getName(), "Room"));
+				Card card = new Card(suggestion.getRoom().getName(), "Room");
+				suggestingPlayer.addSuggestion(card);
+				ENTITIES.getDeductions().refuted(suggestingPlayer, nextPlayer, card, suggested);
 				found = true;
 			} else if (nextPlayer.containsCardWithName(suggestion.getWeapon().getName())) {
-				suggestingPlayer.getSuggestions().add(new Card(suggestion.getWeapon().getName(), "Weapon"));
+				Card card = new Card(suggestion.getWeapon().getName(), "Weapon");
+				suggestingPlayer.addSuggestion(card);
+				ENTITIES.getDeductions().refuted(suggestingPlayer, nextPlayer, card, suggested);
 				found = true;
-				playerRoom.addWeaponToAvailableTile(ENTITIES.getBoard().getTiles(), suggestion.getWeapon());
+				playerRoom.addWeaponToAvailableTile(ENTITIES.getBoard(), suggestion.getWeapon());
 			} else {
 				count++;
 			}
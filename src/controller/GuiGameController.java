@@ -35,11 +35,20 @@ public class GuiGameController {
 	 * Movement controller used to handle all of the players movement throughout
 	 * the board.
 	 * <p/>
-	 * Movement is controlled by a recursive brute force(maybe greedy?)
-	 * algorithm
+	 * Movement is controlled by a breadth first search over the board
 	 */
 	private final MovementController MOVEMENT_CONTROLLER;
 
+	/**
+	 * Dice rolled by the players to move around the board
+	 */
+	private final Dice DICE;
+
+	/**
+	 * Chances of each player reaching each tile and room, for the board overlay
+	 */
+	private final ReachHeatmap REACH_HEATMAP;
+
 	/**
 	 * 2D array of Tile objects, representing the board
 	 */
@@ -53,6 +62,11 @@ public class GuiGameController {
 	private int playerCount;
 	private int playerTurn;
 
+	/**
+	 * The current player's last roll, which is how far they can move
+	 */
+	private int roll;
+
 	private boolean isGameOver;
 	private boolean everyoneLost = false;
 
@@ -62,9 +76,23 @@ public class GuiGameController {
 	 * Constructor
 	 * <p/>
 	 * Creates the entities in the game, initialises the board and creates the
-	 * movement controller.
+	 * movement controller. The game is played with a single six sided die.
 	 */
 	public GuiGameController() {
+		this(new Dice());
+	}
+
+	/**
+	 * Constructor
+	 * <p/>
+	 * Creates the entities in the game, initialises the board and creates the
+	 * movement controller.
+	 *
+	 * @param dice
+	 *            Dice rolled by the players to move
+	 */
+	public GuiGameController(Dice dice) {
+		DICE = dice;
 		ENTITIES = new Entities();
 		BOARD = ENTITIES.getBoard();
 
@@ -72,6 +100,10 @@ public class GuiGameController {
 
 		/* Assign board to movement controller */
 		this.MOVEMENT_CONTROLLER = new MovementController(BOARD);
+		this.REACH_HEATMAP = new ReachHeatmap(BOARD, DICE);
+
+		/* Load or build the movement tables now rather than on the first move */
+		BOARD.getReachabilityTables();
 
 		new StartupFrame(this);
 
@@ -80,12 +112,15 @@ public class GuiGameController {
 	}
 
 	/**
-	 * Rolls the dice for a player, returning a value between 1 - 6
+	 * Rolls the dice for the current player, returning a value between the
+	 * lowest and highest total of the dice (1 - 6 for the standard die). The
+	 * roll is kept as how far the player can move this turn.
 	 *
-	 * @return integer 1 - 6
+	 * @return total of the dice
 	 */
 	public int rollDice() {
-		return (int) (Math.random() * 6 + 1);
+		roll = DICE.roll();
+		return roll;
 	}
 
 	/**
@@ -109,6 +144,7 @@ public class GuiGameController {
 		 */
 		chooseSolutionCards();
 		dealCards();
+		ENTITIES.initDeductions();
 		distributeWeapons();
 
 		initPlayerTurn();
@@ -129,13 +165,13 @@ public class GuiGameController {
 		// valid solution
 		for (Card card : ENTITIES.getCards()) {
 			if (!room && card.getType().equals("Room")) {
-				ENTITIES.getWinningCards().add(card);
+				ENTITIES.addWinningCard(card);
 				room = true;
 			} else if (!character && card.getType().equals("Character")) {
-				ENTITIES.getWinningCards().add(card);
+				ENTITIES.addWinningCard(card);
 				character = true;
 			} else if (!weapon && card.getType().equals("Weapon")) {
-				ENTITIES.getWinningCards().add(card);
+				ENTITIES.addWinningCard(card);
 				weapon = true;
 			}
 		}
@@ -158,7 +194,7 @@ public class GuiGameController {
 				if (count >= size / playerCount) {
 					break;
 				}
-				player.getCards().add(card);
+				player.addCard(card);
 				cardsDealt.add(card);
 				count++;
 
@@ -184,7 +220,7 @@ public class GuiGameController {
 			if (remainingWeapons.isEmpty())
 				break;
 			if (!room.getKey().equals("Pool")) {
-				room.getValue().addWeaponToAvailableTile(ENTITIES.getBoard().getTiles(), remainingWeapons.get(0));
+				room.getValue().addWeaponToAvailableTile(ENTITIES.getBoard(), remainingWeapons.get(0));
 				remainingWeapons.remove(0);
 			}
 		}
@@ -212,6 +248,7 @@ public class GuiGameController {
 			// Gets the current player and sets that player as the current
 			// player so can be coloured on board
 			currentPlayer = ENTITIES.getPlayer(playerTurn % playerCount);
+			BOARD.getLocations().setTurn(playerTurn % playerCount);
 			if (currentPlayer.isAlive()) {
 				currentPlayer.setIsCurrentPlayer(true);
 
@@ -262,6 +299,16 @@ public class GuiGameController {
 		return currentPlayer;
 	}
 
+	/**
+	 * Gets the chances of the current player reaching each tile and room before
+	 * they roll.
+	 *
+	 * @return the heatmap for the current player
+	 */
+	public ReachHeatmap.Heatmap getReachHeatmap() {
+		return REACH_HEATMAP.heatmap(currentPlayer);
+	}
+
 	private void initHumanPlayers(List<String> gamePlayers, List<String> namePlayers) {
 
 		List<Player> endPlayers = new ArrayList<>();
@@ -327,18 +374,9 @@ public class GuiGameController {
 		ENTITIES.getPlayers().addAll(fakePlayers);
 		// ENTITIES.getFinalPlayers().addAll(fakePlayers);
 
-		// Gets the list of tiles from the Entities class to set player
-		// locations to tile
-		for (int i = 0; i < tiles.length; i++) {
-			for (int j = 0; j < tiles[0].length; j++) {
-				for (Player p : ENTITIES.getPlayers()) {
-
-					// assigns a player to a tile location
-					if (p.getXPos() == i && p.getYPos() == j) {
-						tiles[i][j].setPlayer(p);
-					}
-				}
-			}
+		// assigns each player to the tile at their starting location
+		for (Player p : ENTITIES.getPlayers()) {
+			tiles[p.getXPos()][p.getYPos()].setPlayer(p);
 		}
 	}
 
@@ -364,27 +402,21 @@ public class GuiGameController {
 	 *            Room that the player is being randomly assigned to
 	 */
 	private void randomAssignToRoom(Player player, Room assignedRoom) {
-		ArrayList<Tile> connectingRoomTiles = assignedRoom.getTiles();
-		Collections.shuffle(connectingRoomTiles);
-
-		for (Tile t : connectingRoomTiles) {
-			if (t.isRoomTile() && !t.isWallTile() && !t.isOccupied()) {
+		Tile t = assignedRoom.getRandomFreeSlot(DICE.getRandom());
+		if (t != null) {
 
-				// Disassociate old tile with player
-				tiles[player.getXPos()][player.getYPos()].setPlayer(null);
-
-				// update xy position
-				player.setXPos(t.getX());
-				player.setYPos(t.getY());
-				Tile currentTile = tiles[player.getXPos()][player.getYPos()];
+			// Disassociate old tile with player
+			tiles[player.getXPos()][player.getYPos()].setPlayer(null);
 
-				// Associate new tile with the player and update if the player
-				// is in a room or not
-				currentTile.setPlayer(player);
-				player.setRoom(assignedRoom);
+			// update xy position
+			player.setXPos(t.getX());
+			player.setYPos(t.getY());
+			Tile currentTile = tiles[player.getXPos()][player.getYPos()];
 
-				break;
-			}
+			// Associate new tile with the player and update if the player
+			// is in a room or not
+			currentTile.setPlayer(player);
+			player.setRoom(assignedRoom);
 		}
 	}
 
@@ -437,7 +469,7 @@ public class GuiGameController {
 			if (makeAccusation(currentPlayer, suggestion)) {
 				isGameOver = true;
 			} else {
-				currentPlayer.setAlive(false);
+				BOARD.getLocations().setAlive(currentPlayer, false);
 			}
 		} else if (type.equals("suggest")) {
 			makeSuggestion(currentPlayer, suggestion);
@@ -454,24 +486,37 @@ public class GuiGameController {
 
 		suggestion.getPlayer().setIsCurrentPlayer(false);
 
+		int suggested = suggestion.getCardMask();
+
 		// loops through all the players to see if any have a matching card to
 		// the player's suggestion
 		while (count < playerCount && !found) {
 			Player nextPlayer = ENTITIES.getPlayer((index + count) % playerCount);
 
-			// Checks for matching characters, then rooms and finally weapons,
-			// this is not worth randomising
-			if (nextPlayer.containsCardWithName(suggestion.getPlayer().getName())) {
-				suggestingPlayer.getSuggestions().add(new Card(suggestion.getPlayer().getName(), "Character"));
-				playerRoom.addPlayerToAvailableTile(ENTITIES.getBoard().getTiles(), suggestion.getPlayer());
+			// A single check of the whole hand first, as most players can't
+			// refute. Then checks for matching characters, then rooms and
+			// finally weapons, this is not worth randomising
+			if (!nextPlayer.holdsAny(suggested)) {
+				// everyone sees that this player has none of the cards
+				ENTITIES.getDeductions().cannotRefute(nextPlayer, suggested);
+				count++;
+			} else if (nextPlayer.containsCardWithName(suggestion.getPlayer().getName())) {
+				Card card = new Card(suggestion.getPlayer().getName(), "Character");
+				suggestingPlayer.addSuggestion(card);
+				ENTITIES.getDeductions().refuted(suggestingPlayer, nextPlayer, card, suggested);
+				playerRoom.addPlayerToAvailableTile(ENTITIES.getBoard(), suggestion.getPlayer());
 				found = true;
 			} else if (nextPlayer.containsCardWithName(suggestion.getRoom().getName())) {
-				suggestingPlayer.getSuggestions().add(new Card(suggestion.getRoom().getName(), "Room"));
+				Card card = new Card(suggestion.getRoom().getName(), "Room");
+				suggestingPlayer.addSuggestion(card);
+				ENTITIES.getDeductions().refuted(suggestingPlayer, nextPlayer, card, suggested);
 				found = true;
 			} else if (nextPlayer.containsCardWithName(suggestion.getWeapon().getName())) {
-				suggestingPlayer.getSuggestions().add(new Card(suggestion.getWeapon().getName(), "Weapon"));
+				Card card = new Card(suggestion.getWeapon().getName(), "Weapon");
+				suggestingPlayer.addSuggestion(card);
+				ENTITIES.getDeductions().refuted(suggestingPlayer, nextPlayer, card, suggested);
 				found = true;
-				playerRoom.addWeaponToAvailableTile(ENTITIES.getBoard().getTiles(), suggestion.getWeapon());
+				playerRoom.addWeaponToAvailableTile(ENTITIES.getBoard(), suggestion.getWeapon());
 			} else {
 				count++;
 			}
@@ -530,6 +575,7 @@ public class GuiGameController {
 	}
 
 	public void incrementPlayerTurn() {
+		BOARD.getLocations().setTurn(playerTurn % playerCount);
 		currentPlayer = ENTITIES.getFinalPlayers().get(playerTurn++ % playerCount);
 		System.out.println(currentPlayer.getName());
 		initPlayerTurn();
@@ -546,9 +592,16 @@ public class GuiGameController {
 		return img;
 	}
 		
-	public void sendMove(Move move) {
+	/**
+	 * Moves the current player to the tile they clicked on, if they can walk there with their roll
+	 *
+	 * @param move Tile the player clicked on
+	 * @return The route the player walked, or null if the move wasn't valid
+	 */
+	public List<Tile> sendMove(Move move) {
 
-		if (MOVEMENT_CONTROLLER.isValidMove(move, currentPlayer, 6)) {
+		List<Tile> route = MOVEMENT_CONTROLLER.findPath(currentPlayer, move, roll);
+		if (route != null) {
 			// Disassociate old tile with player
 			tiles[currentPlayer.getXPos()][currentPlayer.getYPos()].setPlayer(null);
 
@@ -563,5 +616,6 @@ public class GuiGameController {
 			currentPlayer.setRoom(currentTile.getRoom());
 
 		}
+		return route;
 	}
 }
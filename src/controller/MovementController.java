@@ -2,7 +2,15 @@ package controller;
 
 import model.*;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Class to handle the movement of a player throughout the board
@@ -11,6 +19,12 @@ import java.util.ArrayList;
  */
 public class MovementController {
 
+    /**
+     * x and y offsets of the four tiles next to a tile
+     */
+    private static final int[] STEP_X = { -1, 0, 1, 0 };
+    private static final int[] STEP_Y = { 0, -1, 0, 1 };
+
     /**
      * Game board that the Movement controller will search on.
      */
@@ -21,6 +35,38 @@ public class MovementController {
      */
     private final Tile[][] TILES;
 
+    /**
+     * Bitboard of the board that the searches are run on
+     */
+    private final BoardBits BITS;
+
+    /**
+     * Bitsets reused between searches so that a search doesn't allocate
+     */
+    private final long[] SOURCES;
+    private final long[] REACHED;
+
+    /**
+     * Plans routes into rooms over the corridors and passages
+     */
+    private final RoutePlanner ROUTES;
+
+    /**
+     * Tiles reachable from each room for each roll, valid while the location index is at roomReachVersion
+     */
+    private final Map<Room, Map<Integer, long[]>> ROOM_REACH = new HashMap<>();
+    private int roomReachVersion = -1;
+
+    /**
+     * Working space for the bounded search on boards too big for a distance table. A tile has been seen by the
+     * current search if its SEEN entry equals searchStamp.
+     */
+    private final int[] SEEN;
+    private final int[] STEPS;
+    private int searchStamp;
+    private int[] currentQueue = new int[64];
+    private int[] nextQueue = new int[64];
+
     /**
      * Constructor
      *
@@ -31,103 +77,333 @@ public class MovementController {
     public MovementController(Board board) {
         this.BOARD = board;
         this.TILES = BOARD.getTiles();
+        this.BITS = BOARD.getBits();
+        this.SOURCES = new long[BITS.getWords()];
+        this.REACHED = new long[BITS.getWords()];
+        this.SEEN = new int[BOARD.getWidth() * BOARD.getHeight()];
+        this.STEPS = new int[SEEN.length];
+        this.ROUTES = board.getRoutePlanner();
+    }
+
+    /**
+     * Gets the fewest steps a player needs to walk to get into a room, taking any passages that help
+     *
+     * @param player Player that is moving
+     * @param room Room the player wants to get to
+     * @return Number of steps, or -1 if the room can't be reached
+     * @see RoutePlanner
+     */
+    public int stepsToRoom(Player player, Room room) {
+        return ROUTES.stepsToRoom(player, room);
     }
 
     /**
-     * Recursive handler for the path searching algorithm that checks if a players proposed move is valid or not
+     * @return the route planner for the board
+     */
+    public RoutePlanner getRoutePlanner() {
+        return ROUTES;
+    }
+
+    /**
+     * Checks if a players proposed move is valid or not. For a player in a corridor the walking distance to the target
+     * is looked up in the board's distance table. For a player in a room the target is looked up in the room's cached
+     * reachable tiles, which come from a single search out of all of the room's doors.
      *
      * @param move Proposed {@link Move} by the player
+     * @param player Player making the move
+     * @param roll Roll that the player has made
      * @return Is the move valid?
      */
     public boolean isValidMove(Move move, Player player, int roll) {
+        if (isTileOccupied(move.getX(), move.getY())) return false;
+
         if (player.isInRoom()) {
-            Room room = player.getRoom();
-            ArrayList<Tile> exits = room.getDoors();
-            for (Tile exit : exits) {
-                if (isValidDistance(move, exit, roll)) {
-                    if (!isTileOccupied(move)) {
-                        if(pathSearch(move, exit, roll)) return true;
-                    }
-                }
-            }
-            return false;
+            return BoardBits.isSet(roomReach(player.getRoom(), roll), BITS.bitIndex(move.getX(), move.getY()));
         } else {
-            if (isValidDistance(move, TILES[player.getXPos()][player.getYPos()], roll)) {
-                if (!isTileOccupied(move)) {
-                    return pathSearch(move, TILES[player.getXPos()][player.getYPos()], roll);
-                } else {
-                    return false;
+            return isWithinRoll(TILES[player.getXPos()][player.getYPos()], TILES[move.getX()][move.getY()], roll);
+        }
+    }
+
+    /**
+     * Checks whether a tile can be walked to from another tile with a given roll. Boards small enough to have a
+     * distance table use it, larger ones are searched.
+     *
+     * @param from Tile the player is leaving from
+     * @param to Tile the player wants to reach
+     * @param roll Roll that the player has made
+     * @return Is the tile within the roll
+     */
+    private boolean isWithinRoll(Tile from, Tile to, int roll) {
+        if (BOARD.hasDistanceTable()) {
+            int distance = BOARD.distance(from, to);
+            return distance != -1 && distance <= roll;
+        }
+        return boundedSearch(from, to, roll);
+    }
+
+    /**
+     * A* search for a path between two tiles that is no longer than the roll. The straight line (manhattan) distance
+     * to the target is used as the estimate, and anything whose estimated total is over the roll is never explored, so
+     * the search only ever looks at tiles within roll steps of the start however big the board is.
+     *
+     * Every step changes the estimated total by either 0 or 2, so rather than a priority queue the search keeps one
+     * queue for the current estimate and one for the next.
+     *
+     * @param from Tile the player is leaving from
+     * @param to Tile the player wants to reach
+     * @param roll Roll that the player has made
+     * @return Is there a path within the roll
+     */
+    private boolean boundedSearch(Tile from, Tile to, int roll) {
+        if (!from.isWalkable()) return false;
+
+        int width = BOARD.getWidth();
+        int goalX = to.getX();
+        int goalY = to.getY();
+        int goal = goalY * width + goalX;
+        int estimate = Math.abs(from.getX() - goalX) + Math.abs(from.getY() - goalY);
+        if (estimate > roll) return false;
+
+        // a new stamp marks every tile as unseen without clearing the arrays
+        searchStamp++;
+        int start = from.getY() * width + from.getX();
+        SEEN[start] = searchStamp;
+        STEPS[start] = 0;
+
+        int[] current = currentQueue;
+        int[] next = nextQueue;
+        int currentSize = 0;
+        int nextSize = 0;
+        current[currentSize++] = start;
+
+        while (currentSize > 0 && estimate <= roll) {
+            for (int head = 0; head < currentSize; head++) {
+                int cell = current[head];
+                if (cell == goal) {
+                    currentQueue = current;
+                    nextQueue = next;
+                    return true;
+                }
+
+                int x = cell % width;
+                int y = cell / width;
+                int steps = STEPS[cell] + 1;
+                for (int i = 0; i < 4; i++) {
+                    int nextX = x + STEP_X[i];
+                    int nextY = y + STEP_Y[i];
+                    int neighbour = nextY * width + nextX;
+                    if (!BOARD.isInPlayArea(nextX, nextY) || !TILES[nextX][nextY].isWalkable()) continue;
+                    if (SEEN[neighbour] == searchStamp && STEPS[neighbour] <= steps) continue;
+
+                    int total = steps + Math.abs(nextX - goalX) + Math.abs(nextY - goalY);
+                    if (total > roll) continue;
+
+                    SEEN[neighbour] = searchStamp;
+                    STEPS[neighbour] = steps;
+                    if (total == estimate) {
+                        if (currentSize == current.length) current = Arrays.copyOf(current, current.length * 2);
+                        current[currentSize++] = neighbour;
+                    } else {
+                        if (nextSize == next.length) next = Arrays.copyOf(next, next.length * 2);
+                        next[nextSize++] = neighbour;
+                    }
                 }
-            } else {
-                return false;
             }
+
+            int[] swap = current;
+            current = next;
+            next = swap;
+            currentSize = nextSize;
+            nextSize = 0;
+            estimate += 2;
         }
+
+        currentQueue = current;
+        nextQueue = next;
+        return false;
     }
 
     /**
-     * Method to get whether the current tile is occupied or not by a player
-     *
-     * @param target Target location for the move
+     * Checks a batch of proposed moves for the same player and roll. The reachable tiles are worked out once and
+     * every move is then answered from them, which is much cheaper than calling
+     * {@link #isValidMove(Move, Player, int)} for each move.
      *
-     * @return Is the tile occupied by a player or not
+     * @param player Player making the moves
+     * @param roll Roll that the player has made
+     * @param moves Proposed moves
+     * @return Bitset where bit i is set if the i-th move, in the collection's iteration order, is valid
      */
-    private boolean isTileOccupied(Move target) {
-        if (target.getX() < 24 && target.getX() > 0 && target.getY() < 25 && target.getY() > 0) {
-            Tile t = TILES[target.getX()][target.getY()];
-            return t.isOccupied() || t.isBoundary();
+    public BitSet validateMoves(Player player, int roll, Collection<Move> moves) {
+        long[] reached = reachableBits(player, roll);
+
+        BitSet valid = new BitSet(moves.size());
+        int i = 0;
+        for (Move move : moves) {
+            int x = move.getX();
+            int y = move.getY();
+            if (!isTileOccupied(x, y) && BoardBits.isSet(reached, BITS.bitIndex(x, y))) {
+                valid.set(i);
+            }
+            i++;
         }
-        return true;
+        return valid;
     }
 
     /**
-     * Checks whether it is possible for a {@link Tile} to be reached with a given roll
+     * Finds the route a player would walk to make a move. The search records the tile each tile was first reached
+     * from, so the route is read back from the target without searching again.
      *
-     * @param move Move the player is trying to make
-     * @param playerTile Player that is trying to make the move
+     * @param player Player making the move
+     * @param move Proposed {@link Move} by the player
      * @param roll Roll that the player has made
+     * @return Tiles walked over, starting with the player's tile (or the door they leave by) and ending with the
+     * target, or null if the move isn't valid
+     */
+    public List<Tile> findPath(Player player, Move move, int roll) {
+        if (isTileOccupied(move.getX(), move.getY())) return null;
+
+        int width = BOARD.getWidth();
+        int[] parent = new int[width * BOARD.getHeight()];
+        int[] steps = new int[parent.length];
+        Arrays.fill(parent, -2);
+
+        // parent of -1 marks a tile the route can start on
+        int[] queue = new int[parent.length];
+        int head = 0;
+        int tail = 0;
+        if (player.isInRoom()) {
+            for (Tile exit : player.getRoom().getDoors()) {
+                int cell = exit.getY() * width + exit.getX();
+                if (exit.isWalkable() && parent[cell] == -2) {
+                    parent[cell] = -1;
+                    queue[tail++] = cell;
+                }
+            }
+        } else if (TILES[player.getXPos()][player.getYPos()].isWalkable()) {
+            int cell = player.getYPos() * width + player.getXPos();
+            parent[cell] = -1;
+            queue[tail++] = cell;
+        }
+
+        int target = move.getY() * width + move.getX();
+        while (head < tail) {
+            int cell = queue[head++];
+            if (cell == target) {
+                LinkedList<Tile> route = new LinkedList<>();
+                for (int c = cell; c != -1; c = parent[c]) {
+                    route.addFirst(TILES[c % width][c / width]);
+                }
+                return route;
+            }
+            if (steps[cell] >= roll) continue;
+
+            int x = cell % width;
+            int y = cell / width;
+            for (int i = 0; i < 4; i++) {
+                int nextX = x + STEP_X[i];
+                int nextY = y + STEP_Y[i];
+                int next = nextY * width + nextX;
+                if (BOARD.isInPlayArea(nextX, nextY) && parent[next] == -2 && TILES[nextX][nextY].isWalkable()) {
+                    parent[next] = cell;
+                    steps[next] = steps[cell] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Computes every {@link Tile} that the player could legally move to with the given roll.
      *
-     * @return Is the coordinate within a valid distance.
+     * @param player Player that is moving
+     * @param roll Roll that the player has made
+     * @return Set of unoccupied tiles within roll steps of the player
      */
-    private boolean isValidDistance(Move move, Tile playerTile, int roll) {
-        int changeX = Math.abs(move.getX() - playerTile.getX());
-        int changeY = Math.abs(move.getY() - playerTile.getY());
+    public Set<Tile> reachableTiles(Player player, int roll) {
+        long[] reached = reachableBits(player, roll);
 
-        return (changeX + changeY) <= roll;
+        Set<Tile> reachable = new HashSet<>();
+        for (int x = 0; x < TILES.length; x++) {
+            for (int y = 0; y < TILES[0].length; y++) {
+                if (BoardBits.isSet(reached, BITS.bitIndex(x, y))) reachable.add(TILES[x][y]);
+            }
+        }
+        return reachable;
     }
 
     /**
-     * Recursive path searching algorithm to check whether there is a valid path to the players proposed move.
+     * Works out which tiles the player could move to with the given roll as a bitset. The board's reachability tables
+     * are used where they cover the player and roll, otherwise this floods out from the player's tile or from every
+     * door of the room the player is in. Every tile is handled at once by the flood fill, so it takes roll passes
+     * over the board's bitboard at most.
      *
-     * @param target Target Tile (x:y) coordinates
-     * @param currentTile The current {@link Tile} that that the search is at
-     * @param remaining The remaining number of tile moves available from the roll
+     * The returned array must not be modified, and may be reused by the next call.
      *
-     * @return Is there a valid path to the specified {@link Move}
+     * @param player Player that is moving
+     * @param roll Roll that the player has made
+     * @return Bitset of the unoccupied tiles within roll steps of the player
      */
-    private boolean pathSearch(Move target, Tile currentTile, int remaining) {
-        // checks if the current tile is a room tile and if its a wall, this path is invalid
-        if (currentTile.isRoomTile()){
-            if (currentTile.isWallTile()) return false;
+    public long[] reachableBits(Player player, int roll) {
+        ReachabilityTables tables = BOARD.getReachabilityTables();
+        if (tables != null && tables.reachable(player, roll, BITS, REACHED)) {
+            return REACHED;
         }
 
-        // cause where the pathing algorithm has actually found a valid path
-        if (target.getX() == currentTile.getX() && target.getY() == currentTile.getY()) {
-            return true;
+        if (player.isInRoom()) {
+            return roomReach(player.getRoom(), roll);
         }
 
-        // if the remaining number of steps has been reached but a valid path was not found
-        if (remaining == 0) return false;
+        Arrays.fill(SOURCES, 0);
+        BoardBits.set(SOURCES, BITS.bitIndex(player.getXPos(), player.getYPos()));
+        BITS.reachable(SOURCES, roll, REACHED);
+        return REACHED;
+    }
 
-        int currentX = currentTile.getX();
-        int currentY = currentTile.getY();
+    /**
+     * Gets the tiles that can be reached when leaving a room with a given roll. All of the room's doors seed one
+     * search, and the result is cached until a player or weapon next moves.
+     *
+     * @param room Room being left
+     * @param roll Roll that the player has made
+     * @return Bitset of the unoccupied tiles within roll steps of any of the room's doors
+     */
+    private long[] roomReach(Room room, int roll) {
+        int version = BOARD.getLocations().getVersion();
+        if (version != roomReachVersion) {
+            ROOM_REACH.clear();
+            roomReachVersion = version;
+        }
 
-        // Recursively search for a valid path in all directions
-        if (currentX > 1) if(pathSearch(target, TILES[currentX - 1][currentY], remaining - 1)) return true;
-        if (currentY > 1) if(pathSearch(target, TILES[currentX][currentY - 1], remaining - 1)) return true;
-        if (currentX < 23) if(pathSearch(target, TILES[currentX + 1][currentY], remaining - 1)) return true;
-        if (currentY < 24) if(pathSearch(target, TILES[currentX][currentY + 1], remaining - 1)) return true;
+        Map<Integer, long[]> byRoll = ROOM_REACH.computeIfAbsent(room, r -> new HashMap<>());
+        long[] reached = byRoll.get(roll);
+        if (reached == null) {
+            Arrays.fill(SOURCES, 0);
+            for (Tile exit : room.getDoors()) {
+                BoardBits.set(SOURCES, BITS.bitIndex(exit.getX(), exit.getY()));
+            }
 
-        return false;
+            reached = new long[BITS.getWords()];
+            BITS.reachable(SOURCES, roll, reached);
+            byRoll.put(roll, reached);
+        }
+        return reached;
+    }
+
+    /**
+     * Method to get whether the current tile is occupied or not by a player
+     *
+     * @param x x position of the tile
+     * @param y y position of the tile
+     *
+     * @return Is the tile occupied by a player or not
+     */
+    private boolean isTileOccupied(int x, int y) {
+        if (BOARD.isInPlayArea(x, y)) {
+            Tile t = TILES[x][y];
+            return t.isOccupied() || t.isBoundary();
+        }
+        return true;
     }
 
 }
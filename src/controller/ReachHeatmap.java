@@ -0,0 +1,228 @@
+package controller;
+
+import model.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Works out how likely a player is to be able to reach each tile and room this turn, taken over everything the
+ * {@link Dice} could roll.
+ *
+ * A single breadth first search from the player's tile, or from every door of the room the player is in, gives the
+ * walking distance to every tile. A tile can be reached by any roll at least as big as its distance, so its chance is
+ * read straight off the dice distribution rather than searching once per roll. Secret passages aren't counted, as
+ * they are taken instead of rolling.
+ *
+ * Heatmaps are cached for each starting point until a player or weapon next moves.
+ *
+ * @author Marcel van Workum
+ */
+public class ReachHeatmap {
+
+    /**
+     * x and y offsets of the four tiles next to a tile
+     */
+    private static final int[] STEP_X = { -1, 0, 1, 0 };
+    private static final int[] STEP_Y = { 0, -1, 0, 1 };
+
+    /**
+     * Game board that the heatmaps are worked out on
+     */
+    private final Board BOARD;
+
+    /**
+     * 2D Array of tiles uses to represent the board
+     */
+    private final Tile[][] TILES;
+
+    /**
+     * Chance of rolling at least each total, indexed by the total
+     */
+    private final double[] AT_LEAST;
+
+    /**
+     * Heatmaps keyed by the room, or by the index of the tile, that they start from. Valid while the location index is
+     * at cacheVersion.
+     */
+    private final Map<Object, Heatmap> CACHE = new HashMap<>();
+    private int cacheVersion = -1;
+
+    /**
+     * Working space for the breadth first search
+     */
+    private final int[] QUEUE;
+
+    /**
+     * Constructor
+     *
+     * @param board Board the players move around
+     * @param dice Dice rolled by the players to move
+     */
+    public ReachHeatmap(Board board, Dice dice) {
+        this.BOARD = board;
+        this.TILES = board.getTiles();
+        this.QUEUE = new int[board.getWidth() * board.getHeight()];
+
+        this.AT_LEAST = new double[dice.getMax() + 2];
+        for (int total = dice.getMax(); total >= 0; total--) {
+            AT_LEAST[total] = AT_LEAST[total + 1] + dice.probability(total);
+        }
+    }
+
+    /**
+     * Gets the heatmap for a player, from the cache if nothing has moved since it was worked out
+     *
+     * @param player Player about to roll
+     * @return Chances of the player reaching each tile and room
+     */
+    public Heatmap heatmap(Player player) {
+        int version = BOARD.getLocations().getVersion();
+        if (version != cacheVersion) {
+            CACHE.clear();
+            cacheVersion = version;
+        }
+
+        Object key = player.isInRoom() ? player.getRoom() : player.getYPos() * BOARD.getWidth() + player.getXPos();
+        Heatmap heatmap = CACHE.get(key);
+        if (heatmap == null) {
+            heatmap = build(player);
+            CACHE.put(key, heatmap);
+        }
+        return heatmap;
+    }
+
+    /**
+     * Searches out from the player and turns the distances into chances
+     *
+     * @param player Player about to roll
+     * @return the heatmap
+     */
+    private Heatmap build(Player player) {
+        int width = BOARD.getWidth();
+        int[] distances = new int[width * BOARD.getHeight()];
+        Arrays.fill(distances, -1);
+
+        int head = 0;
+        int tail = 0;
+        if (player.isInRoom()) {
+            for (Tile door : player.getRoom().getDoors()) {
+                int index = door.getY() * width + door.getX();
+                if (distances[index] == -1) {
+                    distances[index] = 0;
+                    QUEUE[tail++] = index;
+                }
+            }
+        } else if (TILES[player.getXPos()][player.getYPos()].isWalkable()) {
+            int index = player.getYPos() * width + player.getXPos();
+            distances[index] = 0;
+            QUEUE[tail++] = index;
+        }
+
+        while (head < tail) {
+            int current = QUEUE[head++];
+            int x = current % width;
+            int y = current / width;
+            for (int i = 0; i < 4; i++) {
+                int nextX = x + STEP_X[i];
+                int nextY = y + STEP_Y[i];
+                if (!BOARD.isInPlayArea(nextX, nextY) || !TILES[nextX][nextY].isWalkable()) continue;
+
+                int next = nextY * width + nextX;
+                if (distances[next] == -1) {
+                    distances[next] = distances[current] + 1;
+                    QUEUE[tail++] = next;
+                }
+            }
+        }
+
+        // only free tiles can be moved on to
+        double[] chances = new double[distances.length];
+        Map<Room, Integer> roomDistances = new HashMap<>();
+        for (int index = 0; index < distances.length; index++) {
+            int distance = distances[index];
+            Tile tile = TILES[index % width][index / width];
+            if (distance == -1 || tile.isBoundary() || tile.isOccupied()) continue;
+
+            chances[index] = atLeast(distance);
+            if (tile.isRoomTile()) {
+                roomDistances.merge(tile.getRoom(), distance, Math::min);
+            }
+        }
+
+        Map<Room, Double> roomChances = new HashMap<>();
+        for (Map.Entry<Room, Integer> entry : roomDistances.entrySet()) {
+            roomChances.put(entry.getKey(), atLeast(entry.getValue()));
+        }
+        return new Heatmap(width, distances, chances, roomChances);
+    }
+
+    /**
+     * Gets the chance of rolling at least a total
+     *
+     * @param total Total needed
+     * @return the chance
+     */
+    private double atLeast(int total) {
+        return total < AT_LEAST.length ? AT_LEAST[total] : 0;
+    }
+
+    /**
+     * Chances of one player reaching each tile and room this turn. Heatmaps are shared through the cache, so they
+     * can't be changed once built.
+     */
+    public static class Heatmap {
+
+        private final int width;
+        private final int[] distances;
+        private final double[] chances;
+        private final Map<Room, Double> roomChances;
+
+        /**
+         * Constructor
+         *
+         * @param width Width of the board
+         * @param distances Walking distance to each tile, or -1 if it can't be walked to
+         * @param chances Chance of being able to move to each tile
+         * @param roomChances Chance of being able to move into each room
+         */
+        private Heatmap(int width, int[] distances, double[] chances, Map<Room, Double> roomChances) {
+            this.width = width;
+            this.distances = distances;
+            this.chances = chances;
+            this.roomChances = roomChances;
+        }
+
+        /**
+         * Gets the chance of the player being able to move to a tile this turn
+         *
+         * @param tile Tile to move to
+         * @return the chance, which is 0 if the tile is taken or can't be walked to
+         */
+        public double probability(Tile tile) {
+            return chances[tile.getY() * width + tile.getX()];
+        }
+
+        /**
+         * Gets the chance of the player being able to move into a room this turn
+         *
+         * @param room Room to move into
+         * @return the chance, which is 0 if the room can't be walked into
+         */
+        public double probability(Room room) {
+            Double chance = roomChances.get(room);
+            return chance == null ? 0 : chance;
+        }
+
+        /**
+         * Gets the number of steps the player needs to walk to a tile, ignoring whether it is taken
+         *
+         * @param tile Tile to walk to
+         * @return Number of steps, or -1 if the tile can't be walked to
+         */
+        public int distance(Tile tile) {
+            return distances[tile.getY() * width + tile.getX()];
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package model;
 
-import controller.GameController;
+import view.textui.BoardRenderer;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ShortBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
+import java.util.TreeSet;
 
 /**
  * Class representing the Cluedo board which is a 2D array of {@link Tile}
@@ -29,6 +40,95 @@ public class Board {
 	 */
 	private Map<String, Room> rooms;
 
+	/**
+	 * Rooms indexed by their number, which is how tiles find their room
+	 */
+	private Room[] roomsByNumber = new Room[0];
+
+	/**
+	 * Bitboard masks of the board, used for searching it
+	 */
+	private BoardBits bits;
+
+	/**
+	 * Index of where the players and weapons are on the board
+	 */
+	private LocationIndex locations;
+
+	/**
+	 * Graph of rooms and corridors for long distance planning, built on first use
+	 */
+	private RoomGraph roomGraph;
+
+	/**
+	 * Walking distances between every pair of rooms, built on first use
+	 */
+	private RoomDistances roomDistances;
+
+	/**
+	 * Shortest routes between the rooms, which the room graph and room distances are measured on, built on first use
+	 */
+	private RoutePlanner routePlanner;
+
+	/**
+	 * Passage version of the rooms that the room graph and room distances were built at
+	 *
+	 * @see #getPassageVersion()
+	 */
+	private int roomGraphVersion;
+	private int roomDistancesVersion;
+
+	/**
+	 * Name of the file the board was read from, which its reachability tables are saved next to
+	 */
+	private final String filename;
+
+	/**
+	 * Reachable tiles for each roll from every corridor tile and room, loaded or built on first use
+	 */
+	private ReachabilityTables reachabilityTables;
+
+	/**
+	 * Image the board was created from, which shares its layout with every other board created from it, or null if
+	 * the board was parsed
+	 */
+	private BoardImage image;
+
+	/**
+	 * Renderer that prints the board to standard out, created on first use
+	 */
+	private BoardRenderer renderer;
+
+	/**
+	 * Maps a tile's position (y * width + x) to its row/column in the distance table, or -1 if the tile can't be
+	 * walked on. Built along with the table.
+	 */
+	private int[] tableIndex;
+
+	/**
+	 * Shortest walking distance between every pair of walkable tiles, ignoring players and weapons. Row is the
+	 * origin tile, column the destination. Lazily built on the first call to {@link #distance(Tile, Tile)}, unless
+	 * the board was created from a {@link BoardImage} holding one.
+	 */
+	private ShortBuffer distances;
+
+	/**
+	 * Number of walkable tiles, and so the length of a row in the distance table
+	 */
+	private int walkableCount;
+
+	/**
+	 * Largest number of walkable tiles that a distance table will be built for. The table grows with the square of
+	 * the number of tiles, so bigger boards have to be searched instead.
+	 */
+	public static final int MAX_TABLE_TILES = 4096;
+
+	/**
+	 * x and y offsets of the four tiles next to a tile
+	 */
+	private static final int[] STEP_X = { -1, 0, 1, 0 };
+	private static final int[] STEP_Y = { 0, -1, 0, 1 };
+
 	/**
 	 * Constructs the board setting the height, width and creating the data
 	 * structures. The board is then parsed for the Cluedo game.
@@ -40,195 +140,428 @@ public class Board {
 		this.width = width;
 		this.height = height;
 		this.rooms = rooms;
+		this.filename = "Board.txt";
 		tiles = new Tile[width][height];
-		parseBoard("Board.txt");
+		List<TileType[]> rows = readBoard(filename);
+		indexRooms();
+		parseBoard(rows);
+		initBoard();
+	}
+
+	/**
+	 * Constructs a board from a board file, taking the height and width from the file. This allows boards other
+	 * than the standard Cluedo board to be played on. If there is a legend file next to the board file (Board.legend
+	 * for Board.txt) it is added to the standard legend, and any rooms it names that don't exist yet are created.
+	 *
+	 * @param rooms Rooms that are on the board
+	 * @param filename name of the board file
+	 */
+	public Board(Map<String, Room> rooms, String filename) {
+		this.rooms = rooms;
+		this.filename = filename;
+		List<TileType[]> rows = readBoard(filename);
+		this.height = rows.size();
+		for (TileType[] row : rows) {
+			this.width = Math.max(width, row.length);
+		}
+		tiles = new Tile[width][height];
+		indexRooms();
+		parseBoard(rows);
+		initBoard();
+	}
+
+	/**
+	 * Constructs a board from a compiled board image. Nothing is parsed, and if the image has a distance table the
+	 * board uses it where it is mapped rather than building its own.
+	 *
+	 * @param rooms Rooms that are on the board
+	 * @param image Image of the board
+	 */
+	public Board(Map<String, Room> rooms, BoardImage image) {
+		this.rooms = rooms;
+		this.filename = image.getFilename();
+		this.image = image;
+		this.width = image.getWidth();
+		this.height = image.getHeight();
+		tiles = new Tile[width][height];
+		image.createRooms(rooms);
+		indexRooms();
+		image.createTiles(this, tiles);
+		initBoard();
+
+		if (image.hasDistanceTable()) {
+			tableIndex = buildTableIndex();
+			distances = image.getDistanceTable();
+		}
 	}
 
 	/**
-	 * simple parser for the file
-	 * 
-	 * @param filename name of the board file (Should be Board.txt)
-	 * @throws FileNotFoundException This shouldn't happen
+	 * Indexes the rooms by their number, once every room the board file needs has been created
 	 */
-	private void parseBoard(String filename) {
-		// If you're reading this comment, you are about to witness some ugly parsing. This code makes me cry at night.
-		// I AM SORRY
-		/*
-					 _____  ___________________   __
-					/  ___||  _  | ___ \ ___ \ \ / /
-					\ `--. | | | | |_/ / |_/ /\ V /
-					 `--. \| | | |    /|    /  \ /
-					/\__/ /\ \_/ / |\ \| |\ \  | |
-					\____/  \___/\_| \_\_| \_| \_/
+	private void indexRooms() {
+		int highest = 0;
+		for (Room room : rooms.values()) {
+			highest = Math.max(highest, room.getRoomNumber());
+		}
+		roomsByNumber = new Room[highest + 1];
+		for (Room room : rooms.values()) {
+			if (room.getRoomNumber() > 0) {
+				roomsByNumber[room.getRoomNumber()] = room;
+			}
+		}
+	}
 
-		 */
+	/**
+	 * Gets a room by its number
+	 *
+	 * @param number Number of the room
+	 * @return the room, or null if there is no room with that number on the board
+	 */
+	Room roomOf(int number) {
+		return number > 0 && number < roomsByNumber.length ? roomsByNumber[number] : null;
+	}
 
+	/**
+	 * Builds the data structures that are derived from the tiles once the board has been parsed
+	 */
+	private void initBoard() {
+		bits = new BoardBits(this);
+		locations = new LocationIndex(this, bits);
+		for (Tile[] column : tiles) {
+			for (Tile tile : column) {
+				if (tile != null && tile.isWalkable()) walkableCount++;
+			}
+		}
+	}
+
+	/**
+	 * Reads a board file into rows of tile types in a single pass over its bytes. The legend is worked out into a
+	 * type for each character first, so each character only costs an array lookup. Characters are decoded from UTF-8
+	 * as they are read, so one that takes several bytes is still one tile.
+	 *
+	 * @param filename name of the board file
+	 * @return rows of the file, or no rows if the file can't be found
+	 */
+	private List<TileType[]> readBoard(String filename) {
+		List<TileType[]> rows = new ArrayList<>();
+		byte[] bytes;
 		try {
-			Scanner s = new Scanner(new File(filename));
-			int y = 0;
-			while (s.hasNextLine()) {
-				String line = s.nextLine();
-				for (int x = 0; x < line.length(); x++) {
-					if (line.charAt(x) == '@') {
-						tiles[x][y] = new BoundaryTile(x, y, null, false);
-					} else if (line.charAt(x) == '-') {
-						tiles[x][y] = new Tile(x, y, null, false, ' ');
-					} else if (line.charAt(x) == 'K') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Kitchen"), true, 'K');
-						rooms.get("Kitchen").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'k') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Kitchen"), false, '.');
-						rooms.get("Kitchen").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == '1') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Kitchen"), false, true, '.');
-						rooms.get("Kitchen").getTiles().add(tiles[x][y]);
-						rooms.get("Kitchen").getDoors().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'B') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Ball Room"), true, 'B');
-						rooms.get("Ball Room").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'b') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Ball Room"), false, '.');
-						rooms.get("Ball Room").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == '2') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Ball Room"), false, true, '.');
-						rooms.get("Ball Room").getTiles().add(tiles[x][y]);
-						rooms.get("Ball Room").getDoors().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'C') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Conservatory"), true, 'C');
-						rooms.get("Conservatory").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'c') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Conservatory"), false, '.');
-						rooms.get("Conservatory").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == '3') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Conservatory"), false, true, '.');
-						rooms.get("Conservatory").getTiles().add(tiles[x][y]);
-						rooms.get("Conservatory").getDoors().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'D') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Dining Room"), true, 'D');
-						rooms.get("Dining Room").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'd') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Dining Room"), false, '.');
-						rooms.get("Dining Room").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == '4') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Dining Room"), false, true, '.');
-						rooms.get("Dining Room").getTiles().add(tiles[x][y]);
-						rooms.get("Dining Room").getDoors().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'X') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Pool"), true, 'X');
-						rooms.get("Pool").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'x') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Pool"), false, '.');
-						rooms.get("Pool").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'I') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Billiard Room"), true, 'I');
-						rooms.get("Billiard Room").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'i') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Billiard Room"), false, '.');
-						rooms.get("Billiard Room").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == '5') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Billiard Room"), false, true, '.');
-						rooms.get("Billiard Room").getTiles().add(tiles[x][y]);
-						rooms.get("Billiard Room").getDoors().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'Y') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Library"), true, 'Y');
-						rooms.get("Library").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'y') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Library"), false, '.');
-						rooms.get("Library").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == '6') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Library"), false, true, '.');
-						rooms.get("Library").getTiles().add(tiles[x][y]);
-						rooms.get("Library").getDoors().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'H') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Hall"), true, 'H');
-						rooms.get("Hall").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'h') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Hall"), false, '.');
-						rooms.get("Hall").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == '7') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Hall"), false, true, '.');
-						rooms.get("Hall").getTiles().add(tiles[x][y]);
-						rooms.get("Hall").getDoors().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'S') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Study"), true, 'S');
-						rooms.get("Study").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == 's') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Study"), false, '.');
-						rooms.get("Study").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == '8') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Study"), false, true, '.');
-						rooms.get("Study").getTiles().add(tiles[x][y]);
-						rooms.get("Study").getDoors().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'L') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Lounge"), true, 'L');
-						rooms.get("Lounge").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == 'l') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Lounge"), false, '.');
-						rooms.get("Lounge").getTiles().add(tiles[x][y]);
-					} else if (line.charAt(x) == '9') {
-						tiles[x][y] = new Tile(x, y, rooms.get("Lounge"), false, true, '.');
-						rooms.get("Lounge").getTiles().add(tiles[x][y]);
-						rooms.get("Lounge").getDoors().add(tiles[x][y]);
-					} else {
-						tiles[x][y] = new Tile(x, y, null, false, ' ');
-					}
+			bytes = readFile(filename);
+		} catch (IOException e) {
+			System.out.println("Cannot find file: " + filename);
+			return rows;
+		}
+
+		Map<java.lang.Character, TileType> types = resolveLegend(readLegend());
+		TileType[] ascii = new TileType[128];
+		for (char c = 0; c < ascii.length; c++) {
+			ascii[c] = types.getOrDefault(c, TileType.CORRIDOR);
+		}
+
+		TileType[] row = new TileType[32];
+		int length = 0;
+		int i = 0;
+		// skip the byte order mark that some editors write
+		if (bytes.length >= 3 && (bytes[0] & 0xff) == 0xef && (bytes[1] & 0xff) == 0xbb && (bytes[2] & 0xff) == 0xbf) {
+			i = 3;
+		}
+		while (i < bytes.length) {
+			int b = bytes[i] & 0xff;
+			TileType type;
+			if (b < 0x80) {
+				i++;
+				if (b == '\n') {
+					rows.add(Arrays.copyOf(row, length));
+					length = 0;
+					continue;
 				}
-				y++;
+				if (b == '\r') continue;
+				type = ascii[b];
+			} else {
+				// the lead byte of a multi-byte character says how many bytes it takes
+				int size = b >= 0xf0 ? 4 : b >= 0xe0 ? 3 : 2;
+				int c = b & (0xff >> (size + 1));
+				for (int j = 1; j < size && i + j < bytes.length; j++) {
+					c = (c << 6) | (bytes[i + j] & 0x3f);
+				}
+				i += size;
+				type = c <= 0xffff ? types.getOrDefault((char) c, TileType.CORRIDOR) : TileType.CORRIDOR;
+			}
+
+			if (length == row.length) {
+				row = Arrays.copyOf(row, length * 2);
+			}
+			row[length++] = type;
+		}
+		if (length > 0) {
+			rows.add(Arrays.copyOf(row, length));
+		}
+		return rows;
+	}
+
+	/**
+	 * Finds a board file on the classpath, where board files are looked for before the working directory
+	 *
+	 * @param filename name of the board file
+	 * @return the file on the classpath, or null if it isn't there
+	 */
+	static URL findResource(String filename) {
+		ClassLoader loader = Board.class.getClassLoader();
+		return loader == null ? null : loader.getResource(filename);
+	}
+
+	/**
+	 * Reads a board file from the classpath, or from the working directory if it isn't on the classpath
+	 *
+	 * @param filename name of the board file
+	 * @return the bytes of the file
+	 * @throws IOException if the file can't be read
+	 */
+	static byte[] readFile(String filename) throws IOException {
+		URL resource = findResource(filename);
+		if (resource == null) {
+			return Files.readAllBytes(Paths.get(filename));
+		}
+
+		try (InputStream in = resource.openStream()) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	/**
+	 * Gets the legend for the board file, which is the standard legend plus the legend file next to the board file
+	 * if there is one
+	 *
+	 * @return the legend
+	 */
+	private BoardLegend readLegend() {
+		BoardLegend legend = BoardLegend.standard();
+		File file = siblingFile(".legend");
+		if (file.exists()) {
+			try {
+				legend.load(file);
+			} catch (IOException e) {
+				System.out.println("Cannot read legend: " + file);
+			}
+		}
+		return legend;
+	}
+
+	/**
+	 * Works out the tile type of each character in the legend, creating any rooms the board doesn't have yet, and adds
+	 * the legend's passages to the rooms
+	 *
+	 * @param legend Legend of the board file
+	 * @return the type of each character
+	 */
+	private Map<java.lang.Character, TileType> resolveLegend(BoardLegend legend) {
+		Map<java.lang.Character, TileType> types = new HashMap<>();
+		for (char c : new TreeSet<>(legend.getCharacters())) {
+			String roomName = legend.getRoomName(c);
+			Room room = null;
+			if (roomName != null) {
+				room = rooms.get(roomName);
+				if (room == null) {
+					room = new Room(roomName, rooms.size() + 1, c);
+					rooms.put(roomName, room);
+				}
+			}
+			BoardLegend.Kind kind = legend.getKind(c);
+			char name = kind == BoardLegend.Kind.WALL ? c : TileType.defaultName(kind);
+			types.put(c, TileType.of(kind, room == null ? 0 : room.getRoomNumber(), name));
+		}
+
+		for (BoardLegend.PassageEntry passage : legend.getPassages()) {
+			Room from = rooms.get(passage.getFrom());
+			Room to = rooms.get(passage.getTo());
+			if (from == null || to == null) {
+				throw new IllegalArgumentException("Passage between unknown rooms: " + passage.getFrom() + " -> "
+						+ passage.getTo());
+			}
+			from.addPassage(to, passage.getKind());
+		}
+		return types;
+	}
+
+	/**
+	 * Gets a file next to the board file, with the same name but a different extension
+	 *
+	 * @param extension Extension of the file, including the dot
+	 * @return the file
+	 */
+	private File siblingFile(String extension) {
+		return siblingFile(filename, extension);
+	}
+
+	/**
+	 * Gets a file next to a board file, with the same name but a different extension
+	 *
+	 * @param filename name of the board file
+	 * @param extension Extension of the file, including the dot
+	 * @return the file
+	 */
+	static File siblingFile(String filename, String extension) {
+		int dot = filename.lastIndexOf('.');
+		boolean hasExtension = dot > Math.max(filename.lastIndexOf('/'), filename.lastIndexOf(File.separatorChar));
+		return new File((hasExtension ? filename.substring(0, dot) : filename) + extension);
+	}
+
+	/**
+	 * Creates the tiles of the board from the rows of the board file. Short rows are padded out with corridor.
+	 *
+	 * @param rows rows of the board file
+	 */
+	private void parseBoard(List<TileType[]> rows) {
+		for (int y = 0; y < height; y++) {
+			TileType[] row = y < rows.size() ? rows.get(y) : new TileType[0];
+			for (int x = 0; x < width; x++) {
+				TileType type = x < row.length ? row[x] : TileType.CORRIDOR;
+				tiles[x][y] = type.createTile(this, x, y);
 			}
-			s.close();
-		} catch (FileNotFoundException e) {
-			System.out.println("Cannot find file: " + filename);
 		}
 	}
 
 	/**
 	 * Prints the board. The printing works differently depending on if the board is going to print
 	 * colour or just standard white.
+	 *
+	 * @see BoardRenderer
 	 */
 	public void printBoard() {
-		for (int y = 0; y < this.height; y++) {
-			for (int x = 0; x < this.width; x++) {
-				if (tiles[x][y] instanceof BoundaryTile) {
-					System.out.print("█ ");
-				} else if (tiles[x][y].getPlayer() != null) {
-					if (tiles[x][y].getPlayer().isCurrentPlayer()) {
-						if (GameController.IS_GAME_COLOURED) {
-							System.out.print("\u001B[32m" + tiles[x][y].getPlayer().getPlayerNumber() + "\u001B[0m" + " ");
-						} else {
-							System.out.print(tiles[x][y].getPlayer().getPlayerNumber() + " ");
-						}
-					} else {
-						if (GameController.IS_GAME_COLOURED) {
-							System.out.print("\u001B[31m" + tiles[x][y].getPlayer().getPlayerNumber() + "\u001B[0m" + " ");
-						} else {
-							System.out.print(tiles[x][y].getPlayer().getPlayerNumber() + " ");
+		getRenderer().render();
+	}
+
+	/**
+	 * Gets the renderer that prints the board to standard out, creating it the first time
+	 *
+	 * @return the renderer
+	 */
+	public BoardRenderer getRenderer() {
+		if (renderer == null) {
+			renderer = new BoardRenderer(this, System.out);
+		}
+		return renderer;
+	}
+
+	/**
+	 * Checks whether a position is inside the area of the board that players can move around. The outer ring of
+	 * the board is never stepped onto, although players start on it.
+	 *
+	 * @param x x position
+	 * @param y y position
+	 * @return Is the position inside the play area
+	 */
+	public boolean isInPlayArea(int x, int y) {
+		return x > 0 && x < width - 1 && y > 0 && y < height - 1;
+	}
+
+	/**
+	 * Gets the shortest walking distance between two tiles, taking walls and the edge of the board into account but
+	 * not any players or weapons in the way.
+	 *
+	 * @param from Tile the walk starts on
+	 * @param to Tile the walk ends on
+	 * @return Number of steps, or -1 if there is no path
+	 * @throws IllegalStateException if the board is too big to have a distance table
+	 */
+	public int distance(Tile from, Tile to) {
+		if (!hasDistanceTable()) {
+			throw new IllegalStateException("Board is too large for a distance table");
+		}
+		if (distances == null) {
+			buildDistanceTable();
+		}
+		int fromIndex = tableIndex[from.getY() * width + from.getX()];
+		int toIndex = tableIndex[to.getY() * width + to.getX()];
+		if (fromIndex == -1 || toIndex == -1) {
+			return -1;
+		}
+		return distances.get(fromIndex * walkableCount + toIndex);
+	}
+
+	/**
+	 * Checks whether the board is small enough for {@link #distance(Tile, Tile)} to be used
+	 *
+	 * @return Is there a distance table for the board
+	 */
+	public boolean hasDistanceTable() {
+		return walkableCount <= MAX_TABLE_TILES;
+	}
+
+	/**
+	 * Gets the distance table, building it if it hasn't been built yet
+	 *
+	 * @return the distance table
+	 */
+	ShortBuffer getDistanceTable() {
+		if (distances == null) {
+			buildDistanceTable();
+		}
+		return distances;
+	}
+
+	/**
+	 * Numbers the walkable tiles, which gives each its row and column in the distance table
+	 *
+	 * @return the row of each tile, indexed by y * width + x, or -1 for tiles that can't be walked on
+	 */
+	private int[] buildTableIndex() {
+		int[] index = new int[width * height];
+		int count = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				index[y * width + x] = tiles[x][y] != null && tiles[x][y].isWalkable() ? count++ : -1;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Builds the all pairs distance table by doing a breadth first search out from every walkable tile.
+	 */
+	private void buildDistanceTable() {
+		int[] index = buildTableIndex();
+		int count = walkableCount;
+
+		short[] table = new short[count * count];
+		Arrays.fill(table, (short) -1);
+
+		ArrayDeque<Tile> queue = new ArrayDeque<>();
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int origin = index[y * width + x];
+				if (origin == -1) continue;
+
+				int row = origin * count;
+				table[row + origin] = 0;
+				queue.add(tiles[x][y]);
+
+				while (!queue.isEmpty()) {
+					Tile current = queue.poll();
+					int steps = table[row + index[current.getY() * width + current.getX()]] + 1;
+					for (int i = 0; i < 4; i++) {
+						int nextX = current.getX() + STEP_X[i];
+						int nextY = current.getY() + STEP_Y[i];
+						if (!isInPlayArea(nextX, nextY)) continue;
+
+						int next = index[nextY * width + nextX];
+						if (next != -1 && table[row + next] == -1) {
+							table[row + next] = (short) steps;
+							queue.add(tiles[nextX][nextY]);
 						}
 					}
-				} else if (tiles[x][y].getWeapon() != null) {
-					if (GameController.IS_GAME_COLOURED) {
-						System.out.print("\u001B[33m" + tiles[x][y].getWeapon().getId() + "\u001B[0m" + " ");
-					} else {
-						System.out.print(tiles[x][y].getWeapon().getId() + " ");
-					}
-				} else {
-					System.out.printf(tiles[x][y].getName() + " ");
 				}
 			}
-
-			// print out the 1 - 26 key along the right side of the board
-			if (GameController.IS_GAME_COLOURED) {
-				System.out.println("\u001B[34m" + " " + (y + 1) + "\u001B[0m");
-			} else {
-				System.out.println(" " + (y + 1));
-			}
 		}
 
-		// finally print out the A-Z Key along the bottom of the board
-		if (GameController.IS_GAME_COLOURED){
-			System.out.print("\u001B[34m" + "\nA B C D E F G H I J K L M N O P Q R S T U V W X Y \n" + "\u001B[0m" + "\n\n\n");
-		} else {
-			System.out.print("\nA B C D E F G H I J K L M N O P Q R S T U V W X Y\n\n\n");
-		}
+		tableIndex = index;
+		distances = ShortBuffer.wrap(table);
 	}
 
 	/**
@@ -240,6 +573,138 @@ public class Board {
 		return tiles;
 	}
 
+	/**
+	 * Gets the bitboard masks of the board.
+	 *
+	 * @return the bits
+	 */
+	public BoardBits getBits() {
+		return bits;
+	}
+
+	/**
+	 * Gets the index of where the players and weapons are.
+	 *
+	 * @return the locations
+	 */
+	public LocationIndex getLocations() {
+		return locations;
+	}
+
+	/**
+	 * Takes a snapshot of where the players and weapons are, which can be forked and changed without touching the
+	 * board.
+	 *
+	 * @return the snapshot
+	 */
+	public GameState snapshot() {
+		return locations.snapshot();
+	}
+
+	/**
+	 * Moves the players and weapons back to where they are in a snapshot
+	 *
+	 * @param state Snapshot to restore
+	 */
+	public void restore(GameState state) {
+		locations.restore(state);
+	}
+
+	/**
+	 * Gets the planner of routes between the rooms, creating it the first time it is asked for. The planner keeps up
+	 * with changes to the passages itself.
+	 *
+	 * @return the route planner
+	 */
+	public RoutePlanner getRoutePlanner() {
+		if (routePlanner == null) {
+			routePlanner = new RoutePlanner(this);
+		}
+		return routePlanner;
+	}
+
+	/**
+	 * Gets the graph of rooms and corridor clusters, building it the first time it is asked for, and again whenever
+	 * the passages between the rooms have changed.
+	 *
+	 * @return the room graph
+	 */
+	public RoomGraph getRoomGraph() {
+		int version = getPassageVersion();
+		if (roomGraph == null || roomGraphVersion != version) {
+			roomGraph = new RoomGraph(this);
+			roomGraphVersion = version;
+		}
+		return roomGraph;
+	}
+
+	/**
+	 * Gets the table of walking distances between the rooms, building it the first time it is asked for, and again
+	 * whenever the passages between the rooms have changed.
+	 *
+	 * @return the room distances
+	 */
+	public RoomDistances getRoomDistances() {
+		int version = getPassageVersion();
+		if (roomDistances == null || roomDistancesVersion != version) {
+			roomDistances = new RoomDistances(this);
+			roomDistancesVersion = version;
+		}
+		return roomDistances;
+	}
+
+	/**
+	 * Gets a number that changes whenever a passage is added to or removed from any room on the board, which is how
+	 * anything built from the passages knows to rebuild
+	 *
+	 * @return the passage version
+	 */
+	public int getPassageVersion() {
+		int version = 0;
+		for (Room room : rooms.values()) {
+			version += room.getPassageVersion();
+		}
+		return version;
+	}
+
+	/**
+	 * Gets the reachability tables of the board, loading them from next to the board file the first time they are
+	 * asked for. If there are no saved tables for this layout they are built and saved. A board created from an image
+	 * shares the tables with every other board created from it, so they are only loaded once per layout.
+	 *
+	 * @return the tables, or null if the board is too big to have them
+	 */
+	public ReachabilityTables getReachabilityTables() {
+		if (reachabilityTables == null) {
+			if (image != null) {
+				reachabilityTables = image.getReachabilityTables(this, siblingFile(".reach"));
+			} else if (ReachabilityTables.canBuild(this)) {
+				reachabilityTables = ReachabilityTables.loadOrBuild(this, siblingFile(".reach"));
+			}
+		}
+		return reachabilityTables;
+	}
+
+	/**
+	 * Gets the fewest steps from any door of one room to any door of another, with secret passages costing nothing.
+	 *
+	 * @param from Room being left
+	 * @param to Room being walked to
+	 * @return Number of steps, or -1 if the room can't be reached
+	 */
+	public int roomDistance(Room from, Room to) {
+		return getRoomDistances().distance(from, to);
+	}
+
+	/**
+	 * Gets the rooms on the board.
+	 *
+	 * @return the rooms
+	 */
+	public Map<String, Room> getRooms() {
+		return rooms;
+	}
+
 	/**
 	 * Gets height.
 	 *
@@ -0,0 +1,322 @@
+package model;
+
+/**
+ * Bitboard representation of a {@link Board}. Every tile is one bit, numbered y * width + x, so the standard 25 x 26
+ * board fits in eleven longs.
+ *
+ * Each kind of tile has its own mask, which lets reachability be worked out for every tile at once with shifts and
+ * ands rather than walking {@link Tile} objects. The occupancy masks are the only ones that change during a game,
+ * and are kept up to date by the board's {@link LocationIndex}.
+ *
+ * Searches reuse scratch arrays held by this object, so a BoardBits should only be searched from one thread.
+ *
+ * @author Marcel van Workum
+ */
+public class BoardBits {
+
+	private final int width;
+	private final int height;
+
+	/**
+	 * Number of longs needed to hold a bit for every tile
+	 */
+	private final int words;
+
+	/**
+	 * Walkable tiles that are not part of a room
+	 */
+	private final long[] corridor;
+
+	/**
+	 * Tiles inside a room that aren't walls
+	 */
+	private final long[] roomInterior;
+
+	/**
+	 * Room walls, which can't be walked through
+	 */
+	private final long[] wall;
+
+	/**
+	 * Doors into rooms
+	 */
+	private final long[] door;
+
+	/**
+	 * Boundary tiles, which can't be moved onto
+	 */
+	private final long[] boundary;
+
+	/**
+	 * Tiles that can be stepped onto during a move, i.e. the walkable tiles inside the play area
+	 */
+	private final long[] step;
+
+	/**
+	 * Tiles that a move is allowed to end on, before occupancy is taken into account
+	 */
+	private final long[] target;
+
+	/**
+	 * Tiles with a player on them
+	 */
+	private final long[] playerOccupied;
+
+	/**
+	 * Tiles with a weapon on them
+	 */
+	private final long[] weaponOccupied;
+
+	/**
+	 * Scratch space for the flood fill
+	 */
+	private final long[] scratch;
+
+	/**
+	 * Constructor
+	 *
+	 * Builds the static masks from the tiles of a board.
+	 *
+	 * @param board Board to build the masks from
+	 */
+	public BoardBits(Board board) {
+		this.width = board.getWidth();
+		this.height = board.getHeight();
+		this.words = (width * height + 63) / 64;
+
+		corridor = new long[words];
+		roomInterior = new long[words];
+		wall = new long[words];
+		door = new long[words];
+		boundary = new long[words];
+		step = new long[words];
+		target = new long[words];
+		playerOccupied = new long[words];
+		weaponOccupied = new long[words];
+		scratch = new long[words];
+
+		Tile[][] tiles = board.getTiles();
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				Tile tile = tiles[x][y];
+				if (tile == null) continue;
+
+				int bit = bitIndex(x, y);
+				if (tile.isBoundary()) set(boundary, bit);
+				if (tile.isDoor()) set(door, bit);
+				if (!tile.isWalkable()) {
+					set(wall, bit);
+				} else if (tile.isRoomTile()) {
+					set(roomInterior, bit);
+				} else {
+					set(corridor, bit);
+				}
+
+				if (board.isInPlayArea(x, y) && tile.isWalkable()) {
+					set(step, bit);
+				}
+				if (board.isInPlayArea(x, y) && !tile.isBoundary()) {
+					set(target, bit);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Flood fills out from a set of source tiles to find every tile that can be moved to within a roll. A move can
+	 * pass over occupied tiles but can't end on one.
+	 *
+	 * @param sources Tiles the move may start from
+	 * @param roll Roll that the player has made
+	 * @param result Array of {@link #getWords()} longs to write the reachable tiles to
+	 */
+	public void reachable(long[] sources, int roll, long[] result) {
+		reachable(sources, roll, playerOccupied, weaponOccupied, result);
+	}
+
+	/**
+	 * Flood fills out from a set of source tiles to find every tile that can be moved to within a roll, with the
+	 * players and weapons where a {@link GameState} has them rather than where they are on the board.
+	 *
+	 * @param sources Tiles the move may start from
+	 * @param roll Roll that the player has made
+	 * @param state State giving the positions of the players and weapons
+	 * @param result Array of {@link #getWords()} longs to write the reachable tiles to
+	 */
+	public void reachable(long[] sources, int roll, GameState state, long[] result) {
+		reachable(sources, roll, state.getPlayerOccupied(), state.getWeaponOccupied(), result);
+	}
+
+	/**
+	 * Flood fill shared by both kinds of search
+	 *
+	 * @param sources Tiles the move may start from
+	 * @param roll Roll that the player has made
+	 * @param playerOccupied Tiles with a player on
+	 * @param weaponOccupied Tiles with a weapon on
+	 * @param result Array of {@link #getWords()} longs to write the reachable tiles to
+	 */
+	private void reachable(long[] sources, int roll, long[] playerOccupied, long[] weaponOccupied, long[] result) {
+		long[] reach = scratch;
+		for (int i = 0; i < words; i++) {
+			reach[i] = sources[i] & ~wall[i];
+		}
+
+		// each pass grows the reached area by one step, stopping early once nothing new is found
+		for (int steps = 0; steps < roll; steps++) {
+			boolean grown = false;
+			for (int i = 0; i < words; i++) {
+				long next = (reach[i] | shiftUp(reach, i, 1) | shiftDown(reach, i, 1) | shiftUp(reach, i, width)
+						| shiftDown(reach, i, width)) & step[i];
+				result[i] = reach[i] | next;
+				grown |= result[i] != reach[i];
+			}
+			System.arraycopy(result, 0, reach, 0, words);
+			if (!grown) break;
+		}
+
+		for (int i = 0; i < words; i++) {
+			result[i] = reach[i] & target[i] & ~playerOccupied[i] & ~weaponOccupied[i];
+		}
+	}
+
+	/**
+	 * Gets word i of the bitset after every bit has been moved up by a number of places.
+	 *
+	 * @param bits Bitset being shifted
+	 * @param i Index of the word to get
+	 * @param places Number of places to shift
+	 * @return Shifted word
+	 */
+	private static long shiftUp(long[] bits, int i, int places) {
+		int wordShift = places >>> 6;
+		int bitShift = places & 63;
+		int source = i - wordShift;
+		if (source < 0) return 0;
+
+		long word = bits[source] << bitShift;
+		if (bitShift != 0 && source > 0) {
+			word |= bits[source - 1] >>> (64 - bitShift);
+		}
+		return word;
+	}
+
+	/**
+	 * Gets word i of the bitset after every bit has been moved down by a number of places.
+	 *
+	 * @param bits Bitset being shifted
+	 * @param i Index of the word to get
+	 * @param places Number of places to shift
+	 * @return Shifted word
+	 */
+	private static long shiftDown(long[] bits, int i, int places) {
+		int wordShift = places >>> 6;
+		int bitShift = places & 63;
+		int source = i + wordShift;
+		if (source >= bits.length) return 0;
+
+		long word = bits[source] >>> bitShift;
+		if (bitShift != 0 && source + 1 < bits.length) {
+			word |= bits[source + 1] << (64 - bitShift);
+		}
+		return word;
+	}
+
+	/**
+	 * Gets the bit number of a tile
+	 *
+	 * @param x x position of the tile
+	 * @param y y position of the tile
+	 * @return bit number
+	 */
+	public int bitIndex(int x, int y) {
+		return y * width + x;
+	}
+
+	/**
+	 * Sets a bit in a bitset
+	 *
+	 * @param bits Bitset
+	 * @param bit Bit to set
+	 */
+	public static void set(long[] bits, int bit) {
+		bits[bit >>> 6] |= 1L << bit;
+	}
+
+	/**
+	 * Clears a bit in a bitset
+	 *
+	 * @param bits Bitset
+	 * @param bit Bit to clear
+	 */
+	public static void clear(long[] bits, int bit) {
+		bits[bit >>> 6] &= ~(1L << bit);
+	}
+
+	/**
+	 * Checks a bit in a bitset
+	 *
+	 * @param bits Bitset
+	 * @param bit Bit to check
+	 * @return Is the bit set
+	 */
+	public static boolean isSet(long[] bits, int bit) {
+		return (bits[bit >>> 6] & (1L << bit)) != 0;
+	}
+
+	/**
+	 * @return the number of longs in each mask
+	 */
+	public int getWords() {
+		return words;
+	}
+
+	/**
+	 * @return the corridor mask
+	 */
+	public long[] getCorridor() {
+		return corridor;
+	}
+
+	/**
+	 * @return the room interior mask
+	 */
+	public long[] getRoomInterior() {
+		return roomInterior;
+	}
+
+	/**
+	 * @return the wall mask
+	 */
+	public long[] getWall() {
+		return wall;
+	}
+
+	/**
+	 * @return the door mask
+	 */
+	public long[] getDoor() {
+		return door;
+	}
+
+	/**
+	 * @return the mask of tiles a move may end on, before occupancy is taken into account
+	 */
+	public long[] getTarget() {
+		return target;
+	}
+
+	/**
+	 * @return the player occupancy mask
+	 */
+	public long[] getPlayerOccupied() {
+		return playerOccupied;
+	}
+
+	/**
+	 * @return the weapon occupancy mask
+	 */
+	public long[] getWeaponOccupied() {
+		return weaponOccupied;
+	}
+}
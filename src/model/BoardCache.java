@@ -0,0 +1,98 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process wide cache of board layouts. The layout of a board never changes during a game, so each board file is only
+ * read and parsed once, into a {@link BoardImage} held in memory along with the board's distance table and its
+ * reachability tables. Every {@link Entities} after the first gets a new board with its own tiles and rooms, and so
+ * its own players and weapons, created from the cached image without touching the file, and shares the tables.
+ *
+ * Board files are looked for on the classpath first, and then in the working directory. A file in the working
+ * directory is read again if it, or its legend, has changed since it was cached.
+ *
+ * @author Marcel van Workum
+ */
+public final class BoardCache {
+
+	/**
+	 * Layouts read so far, keyed by where they were read from
+	 */
+	private static final Map<String, BoardImage> LAYOUTS = new ConcurrentHashMap<>();
+
+	/**
+	 * Not to be created
+	 */
+	private BoardCache() {
+	}
+
+	/**
+	 * Creates a board from a board file, reading the file only if its layout isn't cached yet
+	 *
+	 * @param rooms Rooms that are on the board
+	 * @param filename name of the board file
+	 * @return the board
+	 */
+	public static Board load(Map<String, Room> rooms, String filename) {
+		BoardImage image = LAYOUTS.computeIfAbsent(keyOf(filename), key -> parse(rooms, filename));
+		return new Board(rooms, image);
+	}
+
+	/**
+	 * Forgets every cached layout
+	 */
+	public static void clear() {
+		LAYOUTS.clear();
+	}
+
+	/**
+	 * @return the number of layouts cached
+	 */
+	public static int size() {
+		return LAYOUTS.size();
+	}
+
+	/**
+	 * Reads a board file into an image. The file is parsed onto copies of the rooms, so the rooms of the game that
+	 * asked for it don't get a second set of tiles.
+	 *
+	 * @param rooms Rooms that are on the board
+	 * @param filename name of the board file
+	 * @return the image
+	 */
+	private static BoardImage parse(Map<String, Room> rooms, String filename) {
+		Map<String, Room> copies = new HashMap<>();
+		for (Room room : rooms.values()) {
+			copies.put(room.getName(), new Room(room.getName(), room.getRoomNumber(), room.getID()));
+		}
+		return BoardImage.compile(new Board(copies, filename), filename);
+	}
+
+	/**
+	 * Works out the key of a board file, which is where on the classpath it is, or for a file in the working directory
+	 * its path and when it and its legend were last changed
+	 *
+	 * @param filename name of the board file
+	 * @return the key
+	 */
+	private static String keyOf(String filename) {
+		URL resource = Board.findResource(filename);
+		if (resource != null) {
+			return resource.toString();
+		}
+
+		File file = new File(filename);
+		String path;
+		try {
+			path = file.getCanonicalPath();
+		} catch (IOException e) {
+			path = file.getAbsolutePath();
+		}
+		return path + "@" + file.lastModified() + "@" + Board.siblingFile(filename, ".legend").lastModified();
+	}
+}
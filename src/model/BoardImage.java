@@ -0,0 +1,376 @@
+package model;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled form of a board, written once from a parsed {@link Board} and then memory mapped to create boards without
+ * reading any text.
+ *
+ * The image holds the size of the board, its rooms and their passages, the type, room and name of every tile and,
+ * where the board is small enough, the board's distance table. Mapped images are read only and are shared by every
+ * board created from the same file, including their distance table, so creating a board from an image only costs
+ * creating its tiles.
+ *
+ * An image can be compiled from the command line with the board file and the image file as arguments. Images can
+ * also be compiled into memory, which is how {@link BoardCache} shares the layout of a board file.
+ *
+ * @author Marcel van Workum
+ */
+public class BoardImage {
+
+	/**
+	 * Extension of board image files
+	 */
+	public static final String EXTENSION = ".bin";
+
+	/**
+	 * Marks the start of an image, followed by the format version
+	 */
+	private static final int MAGIC = 0x434c4249;
+	private static final int FORMAT = 2;
+
+	/**
+	 * Bytes used for each tile: kind, room and a two byte name
+	 */
+	private static final int CELL_BYTES = 4;
+
+	/**
+	 * Images mapped so far, keyed by their canonical path
+	 */
+	private static final Map<String, BoardImage> MAPPED = new ConcurrentHashMap<>();
+
+	private final String filename;
+	private final ByteBuffer buffer;
+	private final int width;
+	private final int height;
+
+	private final String[] roomNames;
+	private final int[] roomNumbers;
+	private final char[] roomIds;
+
+	/**
+	 * Index of the room each passage of each room leads to, and the kind of each passage
+	 */
+	private final int[][] passageTargets;
+	private final Passage.Kind[][] passageKinds;
+
+	/**
+	 * Position of the first tile in the buffer
+	 */
+	private final int cellsOffset;
+
+	/**
+	 * Distance table of the board, or null if the image doesn't have one
+	 */
+	private final ShortBuffer distances;
+
+	/**
+	 * Reachability tables shared by every board created from the image, loaded or built on first use
+	 */
+	private ReachabilityTables reachabilityTables;
+
+	/**
+	 * Constructor, which reads the header of a mapped image
+	 *
+	 * @param filename name of the image file
+	 * @param buffer Mapped image
+	 */
+	private BoardImage(String filename, ByteBuffer buffer) {
+		this.filename = filename;
+		this.buffer = buffer;
+
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+			throw new IllegalArgumentException("Not a board image: " + filename);
+		}
+		width = buffer.getInt(8);
+		height = buffer.getInt(12);
+
+		int position = 20;
+		int roomCount = buffer.getInt(16);
+		roomNames = new String[roomCount];
+		roomNumbers = new int[roomCount];
+		roomIds = new char[roomCount];
+		passageTargets = new int[roomCount][];
+		passageKinds = new Passage.Kind[roomCount][];
+		Passage.Kind[] kinds = Passage.Kind.values();
+		for (int i = 0; i < roomCount; i++) {
+			byte[] name = new byte[buffer.getShort(position)];
+			ByteBuffer view = buffer.duplicate();
+			view.position(position + 2);
+			view.get(name);
+			position += 2 + name.length;
+
+			roomNames[i] = new String(name, StandardCharsets.UTF_8);
+			roomNumbers[i] = buffer.getInt(position);
+			roomIds[i] = buffer.getChar(position + 4);
+			position += 6;
+
+			int passageCount = buffer.getShort(position);
+			position += 2;
+			passageTargets[i] = new int[passageCount];
+			passageKinds[i] = new Passage.Kind[passageCount];
+			for (int j = 0; j < passageCount; j++) {
+				passageTargets[i][j] = buffer.getShort(position);
+				passageKinds[i][j] = kinds[buffer.get(position + 2)];
+				position += 3;
+			}
+		}
+
+		cellsOffset = position;
+		position += width * height * CELL_BYTES;
+
+		int tableLength = buffer.getInt(position);
+		position += 4;
+		if (tableLength > 0) {
+			ByteBuffer view = buffer.duplicate();
+			view.position(position);
+			view.limit(position + tableLength * 2);
+			distances = view.slice().asShortBuffer();
+		} else {
+			distances = null;
+		}
+	}
+
+	/**
+	 * Maps an image file, or gets the image if the file has already been mapped
+	 *
+	 * @param filename name of the image file
+	 * @return the image
+	 * @throws IOException if the file can't be mapped
+	 */
+	public static BoardImage map(String filename) throws IOException {
+		String key = new File(filename).getCanonicalPath();
+		BoardImage image = MAPPED.get(key);
+		if (image == null) {
+			try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+				image = new BoardImage(filename, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			}
+			BoardImage existing = MAPPED.putIfAbsent(key, image);
+			if (existing != null) {
+				image = existing;
+			}
+		}
+		return image;
+	}
+
+	/**
+	 * Compiles a board into an image file. Any cached image of the same file is forgotten, so the next call to
+	 * {@link #map(String)} picks up the new image.
+	 *
+	 * @param board Board to compile
+	 * @param file File to write the image to
+	 * @throws IOException if the file can't be written
+	 */
+	public static void compile(Board board, File file) throws IOException {
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+			write(board, out);
+		}
+		MAPPED.remove(file.getCanonicalPath());
+	}
+
+	/**
+	 * Compiles a board into an image held in memory
+	 *
+	 * @param board Board to compile
+	 * @param filename name of the board file, which the image's boards keep their other files next to
+	 * @return the image
+	 */
+	public static BoardImage compile(Board board, String filename) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			write(board, out);
+		} catch (IOException e) {
+			// a byte array doesn't throw
+			throw new IllegalStateException(e);
+		}
+		return new BoardImage(filename, ByteBuffer.wrap(out.toByteArray()));
+	}
+
+	/**
+	 * Writes the image of a board
+	 *
+	 * @param board Board to write
+	 * @param stream Stream to write the image to
+	 * @throws IOException if the image can't be written
+	 */
+	private static void write(Board board, OutputStream stream) throws IOException {
+		List<Room> rooms = new ArrayList<>(board.getRooms().values());
+		rooms.sort(Comparator.comparingInt(Room::getRoomNumber));
+		Map<Room, Integer> roomIndex = new HashMap<>();
+		for (int i = 0; i < rooms.size(); i++) {
+			roomIndex.put(rooms.get(i), i);
+		}
+
+		DataOutputStream out = new DataOutputStream(stream);
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT);
+		out.writeInt(board.getWidth());
+		out.writeInt(board.getHeight());
+
+		out.writeInt(rooms.size());
+		for (Room room : rooms) {
+			byte[] name = room.getName().getBytes(StandardCharsets.UTF_8);
+			out.writeShort(name.length);
+			out.write(name);
+			out.writeInt(room.getRoomNumber());
+			out.writeChar(room.getID());
+
+			List<Passage> passages = new ArrayList<>();
+			for (Passage passage : room.getPassages()) {
+				if (roomIndex.containsKey(passage.getTo())) passages.add(passage);
+			}
+			out.writeShort(passages.size());
+			for (Passage passage : passages) {
+				out.writeShort(roomIndex.get(passage.getTo()));
+				out.writeByte(passage.getKind().ordinal());
+			}
+		}
+
+		Tile[][] tiles = board.getTiles();
+		for (int y = 0; y < board.getHeight(); y++) {
+			for (int x = 0; x < board.getWidth(); x++) {
+				Tile tile = tiles[x][y];
+				out.writeByte(tile.getType().getKind().ordinal());
+				out.writeByte(tile.getRoom() == null ? 0 : roomIndex.get(tile.getRoom()) + 1);
+				out.writeChar(tile.getName());
+			}
+		}
+
+		ShortBuffer table = board.hasDistanceTable() ? board.getDistanceTable() : null;
+		out.writeInt(table == null ? 0 : table.limit());
+		if (table != null) {
+			for (int i = 0; i < table.limit(); i++) {
+				out.writeShort(table.get(i));
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Creates any rooms of the image that a board doesn't have yet, and adds the passages between them
+	 *
+	 * @param rooms Rooms that are on the board
+	 */
+	void createRooms(Map<String, Room> rooms) {
+		Room[] imageRooms = new Room[roomNames.length];
+		for (int i = 0; i < roomNames.length; i++) {
+			imageRooms[i] = rooms.get(roomNames[i]);
+			if (imageRooms[i] == null) {
+				imageRooms[i] = new Room(roomNames[i], roomNumbers[i], roomIds[i]);
+				rooms.put(roomNames[i], imageRooms[i]);
+			}
+		}
+		for (int i = 0; i < roomNames.length; i++) {
+			for (int j = 0; j < passageTargets[i].length; j++) {
+				imageRooms[i].addPassage(imageRooms[passageTargets[i][j]], passageKinds[i][j]);
+			}
+		}
+	}
+
+	/**
+	 * Creates the tiles of a board from the image. The board's rooms have to have been created first.
+	 *
+	 * @param board Board the tiles are for
+	 * @param tiles Array of width by height tiles to fill
+	 */
+	void createTiles(Board board, Tile[][] tiles) {
+		// the number of each image room on the board, which the shared tile types are keyed by
+		int[] numbers = new int[roomNames.length + 1];
+		for (int i = 0; i < roomNames.length; i++) {
+			numbers[i + 1] = board.getRooms().get(roomNames[i]).getRoomNumber();
+		}
+
+		BoardLegend.Kind[] kinds = BoardLegend.Kind.values();
+		int position = cellsOffset;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int cell = buffer.getInt(position);
+				position += CELL_BYTES;
+
+				TileType type = TileType.of(kinds[cell >>> 24], numbers[(cell >>> 16) & 0xff], (char) cell);
+				tiles[x][y] = type.createTile(board, x, y);
+			}
+		}
+	}
+
+	/**
+	 * Compiles a board file into an image
+	 *
+	 * @param args the board file and the image file to write
+	 * @throws IOException if the image can't be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.out.println("Usage: BoardImage <board file> <image file>");
+			return;
+		}
+		compile(new Entities(args[0]).getBoard(), new File(args[1]));
+	}
+
+	/**
+	 * @return the name of the image file
+	 */
+	public String getFilename() {
+		return filename;
+	}
+
+	/**
+	 * @return the width of the board
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return the height of the board
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * @return does the image hold the board's distance table
+	 */
+	public boolean hasDistanceTable() {
+		return distances != null;
+	}
+
+	/**
+	 * @return the board's distance table, read only and shared by every board created from the image
+	 */
+	ShortBuffer getDistanceTable() {
+		return distances;
+	}
+
+	/**
+	 * Gets the reachability tables of the image's layout, loading or building them for the first board that asks
+	 *
+	 * @param board Board created from the image
+	 * @param file File the tables are saved in
+	 * @return the tables, or null if the board is too big to have them
+	 */
+	synchronized ReachabilityTables getReachabilityTables(Board board, File file) {
+		if (reachabilityTables == null && ReachabilityTables.canBuild(board)) {
+			reachabilityTables = ReachabilityTables.loadOrBuild(board, file);
+		}
+		return reachabilityTables;
+	}
+}
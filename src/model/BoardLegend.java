@@ -0,0 +1,262 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Legend saying what each character of a board file stands for. Every character is a boundary, corridor, room wall,
+ * room floor or door, and walls, floors and doors belong to a named room. Characters that aren't in the legend are
+ * read as corridor.
+ *
+ * The standard legend covers the standard board. It can be added to from a legend file, with one character per line
+ * followed by its kind and, for room tiles, the name of the room. Blank lines and lines starting with # are skipped.
+ * Passages between rooms are lines starting with the kind of passage, with -&gt; for a passage that goes one way and
+ * &lt;-&gt; for one that goes both ways.
+ *
+ * <pre>
+ * # character, kind, room
+ * @ boundary
+ * K wall Kitchen
+ * k floor Kitchen
+ * 1 door Kitchen
+ * secret Kitchen &lt;-&gt; Study
+ * one_way Cellar -&gt; Hall
+ * </pre>
+ *
+ * @author Marcel van Workum
+ */
+public class BoardLegend {
+
+	/**
+	 * The kinds of tile a character can stand for
+	 */
+	public enum Kind {
+		BOUNDARY, CORRIDOR, WALL, FLOOR, DOOR
+	}
+
+	/**
+	 * Rooms of the standard board with their wall, floor and door characters
+	 */
+	private static final String[][] STANDARD_ROOMS = {
+			{ "Kitchen", "Kk1" },
+			{ "Ball Room", "Bb2" },
+			{ "Conservatory", "Cc3" },
+			{ "Dining Room", "Dd4" },
+			{ "Pool", "Xx" },
+			{ "Billiard Room", "Ii5" },
+			{ "Library", "Yy6" },
+			{ "Hall", "Hh7" },
+			{ "Study", "Ss8" },
+			{ "Lounge", "Ll9" }
+	};
+
+	/**
+	 * Secret passages of the standard board, which go both ways
+	 */
+	private static final String[][] STANDARD_PASSAGES = {
+			{ "Kitchen", "Study" },
+			{ "Lounge", "Conservatory" }
+	};
+
+	/**
+	 * A passage in the legend, between rooms known only by name
+	 */
+	public static class PassageEntry {
+
+		private final Passage.Kind kind;
+		private final String from;
+		private final String to;
+
+		/**
+		 * Constructor
+		 *
+		 * @param kind Kind of passage
+		 * @param from Name of the room the passage is taken from
+		 * @param to Name of the room the passage leads to
+		 */
+		private PassageEntry(Passage.Kind kind, String from, String to) {
+			this.kind = kind;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * @return the kind of passage
+		 */
+		public Passage.Kind getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return the name of the room the passage is taken from
+		 */
+		public String getFrom() {
+			return from;
+		}
+
+		/**
+		 * @return the name of the room the passage leads to
+		 */
+		public String getTo() {
+			return to;
+		}
+	}
+
+	private final Map<java.lang.Character, Kind> kinds = new HashMap<>();
+	private final Map<java.lang.Character, String> roomNames = new HashMap<>();
+	private final List<PassageEntry> passages = new ArrayList<>();
+
+	/**
+	 * Creates the legend of the standard board
+	 *
+	 * @return the standard legend
+	 */
+	public static BoardLegend standard() {
+		BoardLegend legend = new BoardLegend();
+		legend.put('@', Kind.BOUNDARY, null);
+		legend.put('-', Kind.CORRIDOR, null);
+		for (String[] room : STANDARD_ROOMS) {
+			String characters = room[1];
+			legend.put(characters.charAt(0), Kind.WALL, room[0]);
+			legend.put(characters.charAt(1), Kind.FLOOR, room[0]);
+			if (characters.length() > 2) {
+				legend.put(characters.charAt(2), Kind.DOOR, room[0]);
+			}
+		}
+		for (String[] passage : STANDARD_PASSAGES) {
+			legend.putPassage(Passage.Kind.SECRET, passage[0], passage[1]);
+			legend.putPassage(Passage.Kind.SECRET, passage[1], passage[0]);
+		}
+		return legend;
+	}
+
+	/**
+	 * Adds a character to the legend, replacing whatever it stood for before
+	 *
+	 * @param character Character in the board file
+	 * @param kind Kind of tile it stands for
+	 * @param roomName Room the tile belongs to, which is only needed for walls, floors and doors
+	 */
+	public void put(char character, Kind kind, String roomName) {
+		if (roomName == null && (kind == Kind.WALL || kind == Kind.FLOOR || kind == Kind.DOOR)) {
+			throw new IllegalArgumentException("Room tile '" + character + "' needs a room");
+		}
+		kinds.put(character, kind);
+		if (roomName == null) {
+			roomNames.remove(character);
+		} else {
+			roomNames.put(character, roomName);
+		}
+	}
+
+	/**
+	 * Adds a passage to the legend
+	 *
+	 * @param kind Kind of passage
+	 * @param from Name of the room the passage is taken from
+	 * @param to Name of the room the passage leads to
+	 */
+	public void putPassage(Passage.Kind kind, String from, String to) {
+		passages.add(new PassageEntry(kind, from, to));
+	}
+
+	/**
+	 * Adds the characters in a legend file to the legend
+	 *
+	 * @param file Legend file to read
+	 * @throws IOException if the file can't be read
+	 * @throws IllegalArgumentException if a line of the file isn't understood
+	 */
+	public void load(File file) throws IOException {
+		for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+			String trimmed = line.trim();
+			if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+
+			String[] parts = trimmed.split("\\s+", 3);
+			if (parts[0].length() > 1) {
+				loadPassage(parts[0], trimmed.substring(parts[0].length()), line);
+				continue;
+			}
+			if (parts.length < 2) {
+				throw new IllegalArgumentException("Bad legend line: " + line);
+			}
+
+			Kind kind;
+			try {
+				kind = Kind.valueOf(parts[1].toUpperCase());
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Unknown tile kind: " + line);
+			}
+			put(parts[0].charAt(0), kind, parts.length > 2 ? parts[2] : null);
+		}
+	}
+
+	/**
+	 * Adds a passage line of a legend file to the legend
+	 *
+	 * @param kindName Kind of passage, as written in the file
+	 * @param rooms The rest of the line, naming the rooms either side of an arrow
+	 * @param line The whole line, for error messages
+	 * @throws IllegalArgumentException if the line isn't understood
+	 */
+	private void loadPassage(String kindName, String rooms, String line) {
+		Passage.Kind kind;
+		try {
+			kind = Passage.Kind.valueOf(kindName.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unknown passage kind: " + line);
+		}
+
+		boolean bothWays = rooms.contains("<->");
+		String[] names = rooms.split(bothWays ? "<->" : "->");
+		if (names.length != 2 || names[0].trim().isEmpty() || names[1].trim().isEmpty()) {
+			throw new IllegalArgumentException("Bad passage line: " + line);
+		}
+		putPassage(kind, names[0].trim(), names[1].trim());
+		if (bothWays) {
+			putPassage(kind, names[1].trim(), names[0].trim());
+		}
+	}
+
+	/**
+	 * Gets the kind of tile a character stands for
+	 *
+	 * @param character Character in the board file
+	 * @return the kind, which is corridor for characters not in the legend
+	 */
+	public Kind getKind(char character) {
+		Kind kind = kinds.get(character);
+		return kind == null ? Kind.CORRIDOR : kind;
+	}
+
+	/**
+	 * Gets the room a character's tile belongs to
+	 *
+	 * @param character Character in the board file
+	 * @return the name of the room, or null if the tile isn't part of a room
+	 */
+	public String getRoomName(char character) {
+		return roomNames.get(character);
+	}
+
+	/**
+	 * @return the characters in the legend
+	 */
+	public Set<java.lang.Character> getCharacters() {
+		return kinds.keySet();
+	}
+
+	/**
+	 * @return the passages in the legend, with a passage that goes both ways listed once each way
+	 */
+	public List<PassageEntry> getPassages() {
+		return passages;
+	}
+}
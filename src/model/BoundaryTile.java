@@ -12,14 +12,13 @@ public class BoundaryTile extends Tile {
 	/**
 	 * Constructor
 	 *
+	 * @param board Board the tile is on
 	 * @param x x position of the boundary tile
 	 * @param y y position of the boundary tile
-	 * @param room is the boundary tile associated with a room
-	 * @param isWallTile is the boundary tile a wall
+	 * @param type Type of the tile, which is a boundary
 	 */
-	public BoundaryTile(int x, int y, Room room, boolean isWallTile) {
-		super(x, y, room, isWallTile, '0');
-		super.isBoundary = true;
+	public BoundaryTile(Board board, int x, int y, TileType type) {
+		super(board, x, y, type);
 	}
 
 }
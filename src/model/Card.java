@@ -2,7 +2,8 @@ package model;
 
 /**
  * Class to represent a card in the Cluedo game. A card represents a {@link Weapon}, {@link Character} or {@link Room}
- * and are used when a {@link Player} makes a suggestion or accusation.
+ * and are used when a {@link Player} makes a suggestion or accusation. Cards are equal if they have the same name and
+ * type, and cards of the standard game have a {@link CardId} for holding them in bitmasks.
  *
  * @author Marcel
  * @author Reuben
@@ -19,6 +20,11 @@ public class Card {
 	 */
 	private String type;
 
+	/**
+	 * Card in the catalogue with the same name, or null if there isn't one
+	 */
+	private final CardId id;
+
 	/**
 	 * Constructor
 	 *
@@ -27,9 +33,33 @@ public class Card {
 	 */
 	public Card(String name, String type) {
 		this.name = name;
+		this.id = CardId.byName(name);
 		this.setType(type);
 	}
 
+	/**
+	 * Constructor for a card in the catalogue
+	 *
+	 * @param id Card in the catalogue
+	 */
+	public Card(CardId id) {
+		this(id.getName(), id.getType());
+	}
+
+	/**
+	 * @return the card in the catalogue, or null if the card isn't in it
+	 */
+	public CardId getId() {
+		return id;
+	}
+
+	/**
+	 * @return the bit of the card, or 0 if the card isn't in the catalogue
+	 */
+	public int bit() {
+		return id == null ? 0 : id.bit();
+	}
+
 	/**
 	 * @return the name
 	 */
@@ -50,7 +80,22 @@ public class Card {
 	public void setType(String type) {
 		this.type = type;
 	}
-	
-	
 
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) return true;
+		if (!(other instanceof Card)) return false;
+		Card card = (Card) other;
+		return name.equals(card.name) && type.equals(card.type);
+	}
+
+	@Override
+	public int hashCode() {
+		return name.hashCode() * 31 + type.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
 }
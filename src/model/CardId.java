@@ -0,0 +1,124 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Catalogue of every card in the game. Each card has a bit, given by its ordinal, so a set of cards such as a hand, the
+ * solution or the cards a player has been shown fits in a single int, and checking a hand against a suggestion is one
+ * AND.
+ *
+ * @author Marcel van Workum
+ */
+public enum CardId {
+
+	MRS_PEACOCK("Mrs Peacock", "Character"),
+	MRS_WHITE("Mrs White", "Character"),
+	MISS_SCARLETT("Miss Scarlett", "Character"),
+	PROFESSOR_PLUM("Professor Plum", "Character"),
+	REVEREND_GREEN("Reverend Green", "Character"),
+	COLONEL_MUSTARD("Colonel Mustard", "Character"),
+
+	CANDLESTICK("Candlestick", "Weapon"),
+	DAGGER("Dagger", "Weapon"),
+	LEAD_PIPE("Lead Pipe", "Weapon"),
+	REVOLVER("Revolver", "Weapon"),
+	ROPE("Rope", "Weapon"),
+	SPANNER("Spanner", "Weapon"),
+
+	KITCHEN("Kitchen", "Room"),
+	STUDY("Study", "Room"),
+	LOUNGE("Lounge", "Room"),
+	CONSERVATORY("Conservatory", "Room"),
+	BALL_ROOM("Ball Room", "Room"),
+	BILLIARD_ROOM("Billiard Room", "Room"),
+	LIBRARY("Library", "Room"),
+	HALL("Hall", "Room"),
+	DINING_ROOM("Dining Room", "Room");
+
+	/**
+	 * Masks of every card, and of every card of each type
+	 */
+	public static final int ALL = (1 << values().length) - 1;
+	public static final int CHARACTERS = maskOf("Character");
+	public static final int WEAPONS = maskOf("Weapon");
+	public static final int ROOMS = maskOf("Room");
+
+	private static final Map<String, CardId> BY_NAME = new HashMap<>();
+
+	static {
+		for (CardId id : values()) {
+			BY_NAME.put(id.name, id);
+		}
+	}
+
+	private final String name;
+	private final String type;
+
+	/**
+	 * Constructor
+	 *
+	 * @param name Name of the card, which is the name of its character, weapon or room
+	 * @param type Type of the card
+	 */
+	CardId(String name, String type) {
+		this.name = name;
+		this.type = type;
+	}
+
+	/**
+	 * Finds the card for a character, weapon or room
+	 *
+	 * @param name Name of the character, weapon or room
+	 * @return the card, or null if there is no card with that name
+	 */
+	public static CardId byName(String name) {
+		return BY_NAME.get(name);
+	}
+
+	/**
+	 * Gets the bit of the card with a name
+	 *
+	 * @param name Name of the character, weapon or room
+	 * @return the bit, or 0 if there is no card with that name
+	 */
+	public static int bitOf(String name) {
+		CardId id = BY_NAME.get(name);
+		return id == null ? 0 : id.bit();
+	}
+
+	/**
+	 * Gets the mask of every card of a type
+	 *
+	 * @param type Type of card
+	 * @return the mask
+	 */
+	private static int maskOf(String type) {
+		int mask = 0;
+		for (CardId id : values()) {
+			if (id.type.equals(type)) mask |= id.bit();
+		}
+		return mask;
+	}
+
+	/**
+	 * @return the bit of the card
+	 */
+	public int bit() {
+		return 1 << ordinal();
+	}
+
+	/**
+	 * @return the name of the card
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the type of the card
+	 */
+	public String getType() {
+		return type;
+	}
+}
@@ -0,0 +1,85 @@
+package model;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link Notebook} of every player in a game. The controller tells it how each suggestion went, and it passes on to
+ * each notebook what that player saw. A result that contradicts what a player already knows is left out of their
+ * notebook, so it never stops the game.
+ *
+ * @author Marcel van Workum
+ */
+public class Deductions {
+
+	private final Map<Player, Notebook> notebooks = new IdentityHashMap<>();
+
+	/**
+	 * Constructor. Must be called after the cards have been dealt.
+	 *
+	 * @param players Players in the game
+	 * @param leftOverCount Number of cards left over after dealing
+	 */
+	public Deductions(List<Player> players, int leftOverCount) {
+		for (Player player : players) {
+			notebooks.put(player, new Notebook(players, player, leftOverCount));
+		}
+	}
+
+	/**
+	 * @param player Player to look up
+	 * @return the player's notebook, or null if they aren't in the game
+	 */
+	public Notebook getNotebook(Player player) {
+		return notebooks.get(player);
+	}
+
+	/**
+	 * @return every player's notebook
+	 */
+	public Map<Player, Notebook> getNotebooks() {
+		return Collections.unmodifiableMap(notebooks);
+	}
+
+	/**
+	 * Notes that a player couldn't refute a suggestion, which everyone sees
+	 *
+	 * @param player Player that couldn't refute
+	 * @param cards Bits of the cards suggested
+	 * @return did it fit what every player knows
+	 */
+	public boolean cannotRefute(Player player, int cards) {
+		boolean consistent = true;
+		for (Map.Entry<Player, Notebook> entry : notebooks.entrySet()) {
+			consistent &= entry.getValue().cannotRefute(player, cards);
+		}
+		return consistent;
+	}
+
+	/**
+	 * Notes that a player refuted a suggestion. The suggesting player sees the card, and everyone else only sees that a
+	 * card was shown. A card from outside the {@link CardId catalogue}, such as a room only some boards have, tells
+	 * nobody anything.
+	 *
+	 * @param suggestingPlayer Player that made the suggestion
+	 * @param refutingPlayer Player that refuted it
+	 * @param card Card that was shown
+	 * @param cards Bits of the cards suggested
+	 * @return did it fit what every player knows
+	 */
+	public boolean refuted(Player suggestingPlayer, Player refutingPlayer, Card card, int cards) {
+		if (card.getId() == null) return true;
+
+		boolean consistent = true;
+		for (Map.Entry<Player, Notebook> entry : notebooks.entrySet()) {
+			if (entry.getKey() == suggestingPlayer) {
+				consistent &= entry.getValue().shown(refutingPlayer, card.getId());
+			} else if (entry.getKey() != refutingPlayer) {
+				consistent &= entry.getValue().refuted(refutingPlayer, cards);
+			}
+		}
+		return consistent;
+	}
+}
@@ -0,0 +1,152 @@
+package model;
+
+import java.util.Random;
+
+/**
+ * Class representing the dice that are rolled to move around the board. The standard game uses a single six sided
+ * die, but any number of dice with any number of sides can be used.
+ *
+ * @author Marcel van Workum
+ * @author Reuben Puketapu
+ */
+public class Dice {
+
+	private final int count;
+	private final int sides;
+	private final Random random;
+
+	/**
+	 * Chance of rolling each total, indexed by the total
+	 */
+	private final double[] distribution;
+
+	/**
+	 * Constructor for the standard single six sided die
+	 */
+	public Dice() {
+		this(1, 6);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param count Number of dice rolled each turn
+	 * @param sides Number of sides on each die
+	 */
+	public Dice(int count, int sides) {
+		this(count, sides, new Random());
+	}
+
+	/**
+	 * Constructor for dice that roll the same sequence every time, which is useful for replaying games and testing
+	 *
+	 * @param count Number of dice rolled each turn
+	 * @param sides Number of sides on each die
+	 * @param seed Seed for the random number generator
+	 */
+	public Dice(int count, int sides, long seed) {
+		this(count, sides, new Random(seed));
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param count Number of dice rolled each turn
+	 * @param sides Number of sides on each die
+	 * @param random Random number generator to roll with
+	 */
+	private Dice(int count, int sides, Random random) {
+		if (count < 1 || sides < 1) {
+			throw new IllegalArgumentException("Need at least one die with at least one side");
+		}
+		this.count = count;
+		this.sides = sides;
+		this.random = random;
+		this.distribution = buildDistribution();
+	}
+
+	/**
+	 * Rolls the dice
+	 *
+	 * @return The total of the dice, between {@link #getMin()} and {@link #getMax()}
+	 */
+	public int roll() {
+		int total = 0;
+		for (int i = 0; i < count; i++) {
+			total += random.nextInt(sides) + 1;
+		}
+		return total;
+	}
+
+	/**
+	 * Gets the random number generator the dice roll with. Anything else in a game that is left to chance uses it too,
+	 * so a game with seeded dice plays out the same every time.
+	 *
+	 * @return the random number generator
+	 */
+	public Random getRandom() {
+		return random;
+	}
+
+	/**
+	 * Gets the chance of rolling a total
+	 *
+	 * @param total Total of the dice
+	 * @return Probability of rolling that total
+	 */
+	public double probability(int total) {
+		if (total < 0 || total >= distribution.length) {
+			return 0;
+		}
+		return distribution[total];
+	}
+
+	/**
+	 * Works out the chance of each total by adding one die at a time
+	 *
+	 * @return Probability of each total, indexed by the total
+	 */
+	private double[] buildDistribution() {
+		double[] totals = new double[count * sides + 1];
+		totals[0] = 1;
+		for (int die = 0; die < count; die++) {
+			double[] next = new double[totals.length];
+			for (int total = 0; total < totals.length; total++) {
+				if (totals[total] == 0) continue;
+				for (int face = 1; face <= sides && total + face < next.length; face++) {
+					next[total + face] += totals[total] / sides;
+				}
+			}
+			totals = next;
+		}
+		return totals;
+	}
+
+	/**
+	 * @return the lowest total that can be rolled
+	 */
+	public int getMin() {
+		return count;
+	}
+
+	/**
+	 * @return the highest total that can be rolled
+	 */
+	public int getMax() {
+		return count * sides;
+	}
+
+	/**
+	 * @return the number of dice
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the number of sides on each die
+	 */
+	public int getSides() {
+		return sides;
+	}
+}
@@ -1,5 +1,6 @@
 package model;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -61,6 +62,18 @@ public class Entities {
 	 */
 	private Set<Card> winningCards = new HashSet<>();
 
+	/**
+	 * Bits of the cards in the solution
+	 *
+	 * @see CardId
+	 */
+	private int solution;
+
+	/**
+	 * What each player has worked out about where the cards are, set up once the cards are dealt
+	 */
+	private Deductions deductions;
+
 	/**
 	 * The cluedo game board
 	 */
@@ -70,13 +83,24 @@ public class Entities {
 	 * Constructor
 	 */
 	public Entities() {
-		init();
+		this("Board.txt");
+	}
+
+	/**
+	 * Constructor for a game played on a board other than the standard one
+	 *
+	 * @param boardFile name of the board file to play on, which may be a compiled {@link BoardImage}
+	 */
+	public Entities(String boardFile) {
+		init(boardFile);
 	}
 
 	/**
 	 * Method to initialise all the data structures for the entities.
+	 *
+	 * @param boardFile name of the board file to play on
 	 */
-	private void init() {
+	private void init(String boardFile) {
 		// initialises character
 		initCharacters();
 
@@ -93,8 +117,16 @@ public class Entities {
 		Collections.shuffle(cards);
 		Collections.shuffle(weapons);
 
-		// finally create the game board
-		board = new Board(25, 26, rooms);
+		// finally create the game board, from a compiled image if given one, or from the cached layout of the board file
+		if (boardFile.endsWith(BoardImage.EXTENSION)) {
+			try {
+				board = new Board(rooms, BoardImage.map(boardFile));
+			} catch (IOException e) {
+				throw new IllegalArgumentException("Cannot load board image: " + boardFile, e);
+			}
+		} else {
+			board = BoardCache.load(rooms, boardFile);
+		}
 	}
 
 	/**
@@ -103,39 +135,17 @@ public class Entities {
 	 * Assigns all of the cards to the collection of cards
 	 */
 	private void initCards() {
-		// Characters
-		cards.add(new Card("Mrs Peacock", "Character"));
-		cards.add(new Card("Mrs White", "Character"));
-		cards.add(new Card("Miss Scarlet", "Character"));
-		cards.add(new Card("Proffesor Plum", "Character"));
-		cards.add(new Card("Reverend Green", "Character"));
-		cards.add(new Card("Colonel Mustard", "Character"));
-
-		// Weapons
-		cards.add(new Card("Candlestick", "Weapon"));
-		cards.add(new Card("Dagger", "Weapon"));
-		cards.add(new Card("Lead Pipe", "Weapon"));
-		cards.add(new Card("Revolver", "Weapon"));
-		cards.add(new Card("Rope", "Weapon"));
-		cards.add(new Card("Spanner", "Weapon"));
-
-		// Rooms
-		cards.add(new Card("Kitchen", "Room"));
-		cards.add(new Card("Study", "Room"));
-		cards.add(new Card("Lounge", "Room"));
-		cards.add(new Card("Conservatory", "Room"));
-		cards.add(new Card("Ball Room", "Room"));
-		cards.add(new Card("Billiard Room", "Room"));
-		cards.add(new Card("Library", "Room"));
-		cards.add(new Card("Hall", "Room"));
-		cards.add(new Card("Dining Room", "Room"));
+		// Characters, then weapons and then rooms
+		for (CardId id : CardId.values()) {
+			cards.add(new Card(id));
+		}
 	}
 
 	/**
 	 * Init method
 	 *
-	 * Creates the rooms, sets the connected rooms and then stores the rooms in
-	 * the collection of rooms
+	 * Creates the rooms and then stores the rooms in the collection of rooms.
+	 * The passages between rooms come from the board's legend.
 	 */
 	private void initRooms() {
 		// Create rooms
@@ -150,12 +160,6 @@ public class Entities {
 		Room diningRoom = new Room("Dining Room", 9, 'D');
 		Room pool = new Room("Pool", 10, 'X');
 
-		// sets connected rooms
-		kitchen.setConnectingRoom(study);
-		study.setConnectingRoom(kitchen);
-		lounge.setConnectingRoom(conservatory);
-		conservatory.setConnectingRoom(lounge);
-
 		// store in data structure
 		rooms.put(conservatory.getName(), conservatory);
 		rooms.put(lounge.getName(), lounge);
@@ -274,10 +278,42 @@ public class Entities {
 	}
 
 	/**
-	 * @return the winningCards
+	 * @return the winningCards, which are added to with {@link #addWinningCard(Card)}
 	 */
 	public Set<Card> getWinningCards() {
-		return winningCards;
+		return Collections.unmodifiableSet(winningCards);
+	}
+
+	/**
+	 * Adds a card to the solution
+	 *
+	 * @param card Card in the solution
+	 */
+	public void addWinningCard(Card card) {
+		winningCards.add(card);
+		solution |= card.bit();
+	}
+
+	/**
+	 * @return the bits of the cards in the solution
+	 */
+	public int getSolution() {
+		return solution;
+	}
+
+	/**
+	 * Sets up every player's notebook. Must be called once the cards have been dealt, when the cards that are left
+	 * are the ones nobody was dealt.
+	 */
+	public void initDeductions() {
+		deductions = new Deductions(players, cards.size());
+	}
+
+	/**
+	 * @return what each player has worked out, or null before the cards are dealt
+	 */
+	public Deductions getDeductions() {
+		return deductions;
 	}
 
 	/**
@@ -0,0 +1,375 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Snapshot of where every player and weapon is on a {@link Board}, and which players are still in the game, that can
+ * be changed without touching the board. Lookahead and what-if analysis fork a state, try moves on the fork, and
+ * either throw it away or {@link Board#restore(GameState) restore} the board to it.
+ *
+ * Forks share their arrays with the state they were forked from, and each state copies an array the first time it
+ * changes it. Forking is therefore a single small object, and a move only copies the few arrays it touches.
+ *
+ * Players and weapons are known by the numbers the board's {@link LocationIndex} gives them. A state only looks those
+ * numbers up and never adds to the index, so a player or weapon that has never been on the board can't be moved in a
+ * state and isn't on the board or in the game as far as the state is concerned.
+ *
+ * @author Marcel van Workum
+ */
+public class GameState {
+
+	private final LocationIndex locations;
+	private final int width;
+
+	/**
+	 * Tile each player and weapon is on (y * width + x) indexed by their number, or -1 if they aren't on the board
+	 */
+	private int[] playerTiles;
+	private int[] weaponTiles;
+
+	/**
+	 * Occupancy masks, in the same form as those of {@link BoardBits}
+	 */
+	private long[] playerOccupied;
+	private long[] weaponOccupied;
+
+	/**
+	 * Bit for each player number that is set if the player is still in the game
+	 */
+	private long alive;
+
+	/**
+	 * Whose turn it is
+	 */
+	private int turn;
+
+	/**
+	 * Zobrist hash of the state, in the same form as {@link LocationIndex#getHash()}
+	 */
+	private long hash;
+
+	/**
+	 * Which of the arrays belong to this state alone, and so can be changed without copying
+	 */
+	private boolean ownsPlayerTiles;
+	private boolean ownsWeaponTiles;
+	private boolean ownsPlayerOccupied;
+	private boolean ownsWeaponOccupied;
+
+	/**
+	 * Constructor
+	 *
+	 * @param locations Index the player and weapon numbers come from
+	 * @param playerTiles Tile of each player, which the state takes ownership of
+	 * @param weaponTiles Tile of each weapon, which the state takes ownership of
+	 * @param playerOccupied Player occupancy mask, which the state takes ownership of
+	 * @param weaponOccupied Weapon occupancy mask, which the state takes ownership of
+	 * @param alive Bit for each player still in the game
+	 * @param turn Whose turn it is
+	 * @param hash Zobrist hash of the state
+	 * @param width Width of the board
+	 */
+	GameState(LocationIndex locations, int[] playerTiles, int[] weaponTiles, long[] playerOccupied,
+			long[] weaponOccupied, long alive, int turn, long hash, int width) {
+		this.locations = locations;
+		this.playerTiles = playerTiles;
+		this.weaponTiles = weaponTiles;
+		this.playerOccupied = playerOccupied;
+		this.weaponOccupied = weaponOccupied;
+		this.alive = alive;
+		this.turn = turn;
+		this.hash = hash;
+		this.width = width;
+		this.ownsPlayerTiles = true;
+		this.ownsWeaponTiles = true;
+		this.ownsPlayerOccupied = true;
+		this.ownsWeaponOccupied = true;
+	}
+
+	/**
+	 * Copy constructor for a fork, which shares every array with the state it is forked from
+	 *
+	 * @param parent State being forked
+	 */
+	private GameState(GameState parent) {
+		this.locations = parent.locations;
+		this.width = parent.width;
+		this.playerTiles = parent.playerTiles;
+		this.weaponTiles = parent.weaponTiles;
+		this.playerOccupied = parent.playerOccupied;
+		this.weaponOccupied = parent.weaponOccupied;
+		this.alive = parent.alive;
+		this.turn = parent.turn;
+		this.hash = parent.hash;
+	}
+
+	/**
+	 * Forks the state. The fork and this state can both be changed without affecting the other.
+	 *
+	 * @return the fork
+	 */
+	public GameState fork() {
+		// the arrays are now shared, so neither state can write to them without copying
+		ownsPlayerTiles = false;
+		ownsWeaponTiles = false;
+		ownsPlayerOccupied = false;
+		ownsWeaponOccupied = false;
+		return new GameState(this);
+	}
+
+	/**
+	 * Moves a player to a tile, leaving the tile they were on empty
+	 *
+	 * @param player Player to move
+	 * @param tile Tile to move to, or null to take the player off the board
+	 * @throws IllegalArgumentException if the player has never been on the board
+	 */
+	public void movePlayer(Player player, Tile tile) {
+		int number = numberOf(player);
+		if (number >= playerTiles.length || !ownsPlayerTiles) {
+			int[] copy = Arrays.copyOf(playerTiles, Math.max(playerTiles.length, number + 1));
+			Arrays.fill(copy, playerTiles.length, copy.length, -1);
+			playerTiles = copy;
+			ownsPlayerTiles = true;
+		}
+		if (!ownsPlayerOccupied) {
+			playerOccupied = playerOccupied.clone();
+			ownsPlayerOccupied = true;
+		}
+
+		int from = playerTiles[number];
+		playerTiles[number] = -1;
+		if (from != -1) {
+			hash ^= Zobrist.player(number, from);
+			if (playerAt(from) == -1) BoardBits.clear(playerOccupied, from);
+		}
+
+		if (tile != null) {
+			playerTiles[number] = indexOf(tile);
+			BoardBits.set(playerOccupied, playerTiles[number]);
+			hash ^= Zobrist.player(number, playerTiles[number]);
+		}
+	}
+
+	/**
+	 * Moves a weapon to a tile, leaving the tile it was on empty
+	 *
+	 * @param weapon Weapon to move
+	 * @param tile Tile to move to, or null to take the weapon off the board
+	 * @throws IllegalArgumentException if the weapon has never been on the board
+	 */
+	public void moveWeapon(Weapon weapon, Tile tile) {
+		int number = numberOf(weapon);
+		if (number >= weaponTiles.length || !ownsWeaponTiles) {
+			int[] copy = Arrays.copyOf(weaponTiles, Math.max(weaponTiles.length, number + 1));
+			Arrays.fill(copy, weaponTiles.length, copy.length, -1);
+			weaponTiles = copy;
+			ownsWeaponTiles = true;
+		}
+		if (!ownsWeaponOccupied) {
+			weaponOccupied = weaponOccupied.clone();
+			ownsWeaponOccupied = true;
+		}
+
+		int from = weaponTiles[number];
+		weaponTiles[number] = -1;
+		if (from != -1) {
+			hash ^= Zobrist.weapon(number, from);
+			if (weaponAt(from) == -1) BoardBits.clear(weaponOccupied, from);
+		}
+
+		if (tile != null) {
+			weaponTiles[number] = indexOf(tile);
+			BoardBits.set(weaponOccupied, weaponTiles[number]);
+			hash ^= Zobrist.weapon(number, weaponTiles[number]);
+		}
+	}
+
+	/**
+	 * Sets whether a player is still in the game
+	 *
+	 * @param player Player to change
+	 * @param isAlive Is the player still in the game
+	 * @throws IllegalArgumentException if the player has never been on the board
+	 */
+	public void setAlive(Player player, boolean isAlive) {
+		int number = numberOf(player);
+		long bit = 1L << number;
+		if (((alive & bit) != 0) != isAlive) {
+			alive ^= bit;
+			hash ^= Zobrist.alive(number);
+		}
+	}
+
+	/**
+	 * Sets whose turn it is
+	 *
+	 * @param turn Whose turn it is
+	 */
+	public void setTurn(int turn) {
+		hash ^= Zobrist.turn(this.turn) ^ Zobrist.turn(turn);
+		this.turn = turn;
+	}
+
+	/**
+	 * @return whose turn it is
+	 */
+	public int getTurn() {
+		return turn;
+	}
+
+	/**
+	 * Gets the Zobrist hash of the state. Two states with the same players and weapons in the same places, the same
+	 * turn and the same players still in the game have the same hash.
+	 *
+	 * @return the hash
+	 */
+	public long getHash() {
+		return hash;
+	}
+
+	/**
+	 * Checks whether a player is still in the game
+	 *
+	 * @param player Player to check
+	 * @return Is the player still in the game
+	 */
+	public boolean isAlive(Player player) {
+		int number = locations.findNumber(player);
+		return number != -1 && (alive & (1L << number)) != 0;
+	}
+
+	/**
+	 * Gets the tile a player is on in this state
+	 *
+	 * @param player Player to find
+	 * @return the tile, or null if the player isn't on the board
+	 */
+	public Tile getTile(Player player) {
+		int number = locations.findNumber(player);
+		return number != -1 && number < playerTiles.length ? locations.tileAt(playerTiles[number]) : null;
+	}
+
+	/**
+	 * Gets the tile a weapon is on in this state
+	 *
+	 * @param weapon Weapon to find
+	 * @return the tile, or null if the weapon isn't on the board
+	 */
+	public Tile getTile(Weapon weapon) {
+		int number = locations.findNumber(weapon);
+		return number != -1 && number < weaponTiles.length ? locations.tileAt(weaponTiles[number]) : null;
+	}
+
+	/**
+	 * Checks whether there is a player or weapon on a tile in this state
+	 *
+	 * @param tile Tile to look at
+	 * @return Is the tile occupied
+	 */
+	public boolean isOccupied(Tile tile) {
+		int index = indexOf(tile);
+		return BoardBits.isSet(playerOccupied, index) || BoardBits.isSet(weaponOccupied, index);
+	}
+
+	/**
+	 * Gets the number of a player, which has to have been given one by the index
+	 *
+	 * @param player Player to look up
+	 * @return the number
+	 * @throws IllegalArgumentException if the player has never been on the board
+	 */
+	private int numberOf(Player player) {
+		int number = locations.findNumber(player);
+		if (number == -1) {
+			throw new IllegalArgumentException("Player has never been on the board: " + player.getName());
+		}
+		return number;
+	}
+
+	/**
+	 * Gets the number of a weapon, which has to have been given one by the index
+	 *
+	 * @param weapon Weapon to look up
+	 * @return the number
+	 * @throws IllegalArgumentException if the weapon has never been on the board
+	 */
+	private int numberOf(Weapon weapon) {
+		int number = locations.findNumber(weapon);
+		if (number == -1) {
+			throw new IllegalArgumentException("Weapon has never been on the board: " + weapon.getName());
+		}
+		return number;
+	}
+
+	/**
+	 * Finds the player on a tile
+	 *
+	 * @param index Index of the tile
+	 * @return the number of the player, or -1 if there isn't one
+	 */
+	private int playerAt(int index) {
+		for (int number = 0; number < playerTiles.length; number++) {
+			if (playerTiles[number] == index) return number;
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds the weapon on a tile
+	 *
+	 * @param index Index of the tile
+	 * @return the number of the weapon, or -1 if there isn't one
+	 */
+	private int weaponAt(int index) {
+		for (int number = 0; number < weaponTiles.length; number++) {
+			if (weaponTiles[number] == index) return number;
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the index of a tile, which is y * width + x
+	 *
+	 * @param tile Tile to find
+	 * @return the index
+	 */
+	private int indexOf(Tile tile) {
+		return tile.getY() * width + tile.getX();
+	}
+
+	/**
+	 * @return the tile of each player by number. Must not be modified.
+	 */
+	int[] getPlayerTiles() {
+		return playerTiles;
+	}
+
+	/**
+	 * @return the tile of each weapon by number. Must not be modified.
+	 */
+	int[] getWeaponTiles() {
+		return weaponTiles;
+	}
+
+	/**
+	 * @return the player occupancy mask. Must not be modified.
+	 */
+	public long[] getPlayerOccupied() {
+		return playerOccupied;
+	}
+
+	/**
+	 * @return the weapon occupancy mask. Must not be modified.
+	 */
+	public long[] getWeaponOccupied() {
+		return weaponOccupied;
+	}
+
+	/**
+	 * @return the bit for each player number that is still in the game
+	 */
+	long getAlive() {
+		return alive;
+	}
+}
@@ -0,0 +1,414 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of where every {@link Player} and {@link Weapon} is on a {@link Board}.
+ *
+ * This is where what is on each tile is kept. Every player and weapon is given a number the first time it is put on
+ * the board, and the index holds the number of the player and weapon on each tile (y * width + x) along with the tile
+ * each player and weapon is on. Tiles ask the index for their player and weapon, so any move, suggestion or secret
+ * passage updates it as it happens, and finding or relocating a token never needs a sweep of the board. The occupancy
+ * masks of the board's {@link BoardBits} are kept up to date at the same time.
+ *
+ * All of this is held in int arrays, so the state of a game can be copied with a few array copies, which is how
+ * {@link GameState} snapshots are taken.
+ *
+ * @author Marcel van Workum
+ */
+public class LocationIndex {
+
+	private final Board board;
+	private final BoardBits bits;
+
+	/**
+	 * Players and weapons in the order they were numbered
+	 */
+	private final List<Player> players = new ArrayList<>();
+	private final List<Weapon> weapons = new ArrayList<>();
+	private final Map<Player, Integer> playerNumbers = new HashMap<>();
+	private final Map<Weapon, Integer> weaponNumbers = new HashMap<>();
+
+	/**
+	 * Number plus one of the player and weapon on each tile, or 0 for none
+	 */
+	private final int[] playerAt;
+	private final int[] weaponAt;
+
+	/**
+	 * Tile each player and weapon is on, indexed by their number, or -1 if they aren't on the board
+	 */
+	private int[] playerTiles = new int[0];
+	private int[] weaponTiles = new int[0];
+
+	/**
+	 * Incremented every time a token moves, so that anything cached against the positions of the tokens can tell
+	 * when it is out of date
+	 */
+	private int version;
+
+	/**
+	 * Zobrist hash of the positions of the players and weapons, whose turn it is and who is still in the game
+	 */
+	private long hash;
+
+	/**
+	 * Whose turn it is, and a bit for each player number that is still in the game
+	 */
+	private int turn;
+	private long alive;
+
+	/**
+	 * Constructor
+	 *
+	 * @param board Board the index is for
+	 * @param bits Bitboard whose occupancy masks are kept in line with the index
+	 */
+	public LocationIndex(Board board, BoardBits bits) {
+		this.board = board;
+		this.bits = bits;
+		this.playerAt = new int[board.getWidth() * board.getHeight()];
+		this.weaponAt = new int[playerAt.length];
+		this.hash = Zobrist.turn(0);
+	}
+
+	/**
+	 * Gets the tile a player is standing on
+	 *
+	 * @param player Player to find
+	 * @return the tile, or null if the player isn't on the board
+	 */
+	public Tile getTile(Player player) {
+		Integer number = playerNumbers.get(player);
+		return number == null ? null : tileAt(playerTiles[number]);
+	}
+
+	/**
+	 * Gets the tile a weapon is lying on
+	 *
+	 * @param weapon Weapon to find
+	 * @return the tile, or null if the weapon isn't on the board
+	 */
+	public Tile getTile(Weapon weapon) {
+		Integer number = weaponNumbers.get(weapon);
+		return number == null ? null : tileAt(weaponTiles[number]);
+	}
+
+	/**
+	 * Gets the player on a tile
+	 *
+	 * @param tile Tile to look at
+	 * @return the player, or null if there isn't one
+	 */
+	public Player getPlayer(Tile tile) {
+		int number = playerAt[indexOf(tile)];
+		return number == 0 ? null : players.get(number - 1);
+	}
+
+	/**
+	 * Gets the weapon on a tile
+	 *
+	 * @param tile Tile to look at
+	 * @return the weapon, or null if there isn't one
+	 */
+	public Weapon getWeapon(Tile tile) {
+		int number = weaponAt[indexOf(tile)];
+		return number == 0 ? null : weapons.get(number - 1);
+	}
+
+	/**
+	 * Checks whether there is a player or weapon on a tile
+	 *
+	 * @param tile Tile to look at
+	 * @return Is the tile occupied
+	 */
+	public boolean isOccupied(Tile tile) {
+		int index = indexOf(tile);
+		return playerAt[index] != 0 || weaponAt[index] != 0;
+	}
+
+	/**
+	 * Gets the version of the index, which changes whenever a player or weapon moves
+	 *
+	 * @return the version
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Puts a player on a tile, replacing the player that was there
+	 *
+	 * @param tile Tile that changed
+	 * @param player Player now on the tile, or null to clear it
+	 */
+	void setPlayer(Tile tile, Player player) {
+		int index = indexOf(tile);
+		int oldNumber = playerAt[index] - 1;
+		if (oldNumber != -1 && playerTiles[oldNumber] == index) {
+			playerTiles[oldNumber] = -1;
+			hash ^= Zobrist.player(oldNumber, index);
+		}
+
+		if (player == null) {
+			playerAt[index] = 0;
+		} else {
+			int number = numberOf(player);
+			if (playerTiles[number] != -1) {
+				hash ^= Zobrist.player(number, playerTiles[number]);
+			}
+			playerAt[index] = number + 1;
+			playerTiles[number] = index;
+			hash ^= Zobrist.player(number, index);
+		}
+		updateBit(bits.getPlayerOccupied(), index, player != null);
+		updateSlot(tile, index);
+		version++;
+	}
+
+	/**
+	 * Puts a weapon on a tile, replacing the weapon that was there
+	 *
+	 * @param tile Tile that changed
+	 * @param weapon Weapon now on the tile, or null to clear it
+	 */
+	void setWeapon(Tile tile, Weapon weapon) {
+		int index = indexOf(tile);
+		int oldNumber = weaponAt[index] - 1;
+		if (oldNumber != -1 && weaponTiles[oldNumber] == index) {
+			weaponTiles[oldNumber] = -1;
+			hash ^= Zobrist.weapon(oldNumber, index);
+		}
+
+		if (weapon == null) {
+			weaponAt[index] = 0;
+		} else {
+			int number = numberOf(weapon);
+			if (weaponTiles[number] != -1) {
+				hash ^= Zobrist.weapon(number, weaponTiles[number]);
+			}
+			weaponAt[index] = number + 1;
+			weaponTiles[number] = index;
+			hash ^= Zobrist.weapon(number, index);
+		}
+		updateBit(bits.getWeaponOccupied(), index, weapon != null);
+		updateSlot(tile, index);
+		version++;
+	}
+
+	/**
+	 * Sets whose turn it is
+	 *
+	 * @param turn Whose turn it is
+	 */
+	public void setTurn(int turn) {
+		hash ^= Zobrist.turn(this.turn) ^ Zobrist.turn(turn);
+		this.turn = turn;
+	}
+
+	/**
+	 * Sets whether a player is still in the game. The game controllers do this through the index, rather than on the
+	 * player, so that the hash stays up to date.
+	 *
+	 * @param player Player to change
+	 * @param isAlive Is the player still in the game
+	 */
+	public void setAlive(Player player, boolean isAlive) {
+		int number = numberOf(player);
+		player.setAlive(isAlive);
+
+		long bit = 1L << number;
+		if (((alive & bit) != 0) != isAlive) {
+			alive ^= bit;
+			hash ^= Zobrist.alive(number);
+		}
+	}
+
+	/**
+	 * Gets the Zobrist hash of the game, which covers where every player and weapon is, whose turn it is and who is
+	 * still in the game. It is kept up to date as things change, so getting it is free.
+	 *
+	 * @return the hash
+	 */
+	public long getHash() {
+		return hash;
+	}
+
+	/**
+	 * Takes a snapshot of where every player and weapon is, whose turn it is and which players are still in the game
+	 *
+	 * @return the snapshot
+	 */
+	public GameState snapshot() {
+		return new GameState(this, playerTiles.clone(), weaponTiles.clone(), bits.getPlayerOccupied().clone(),
+				bits.getWeaponOccupied().clone(), alive, turn, hash, board.getWidth());
+	}
+
+	/**
+	 * Moves every player and weapon back to where they are in a snapshot. Only the players and weapons that are in a
+	 * different place are moved, and each player's position and room are updated along with their tile.
+	 *
+	 * @param state Snapshot to restore
+	 */
+	public void restore(GameState state) {
+		int[] targets = state.getPlayerTiles();
+		// everyone moving leaves their tile first, so that players swapping tiles don't clear each other
+		for (int number = 0; number < players.size(); number++) {
+			int target = number < targets.length ? targets[number] : -1;
+			int current = playerTiles[number];
+			if (current != target && current != -1) {
+				if (playerAt[current] == number + 1) {
+					tileAt(current).setPlayer(null);
+				}
+				playerTiles[number] = -1;
+			}
+		}
+		for (int number = 0; number < players.size(); number++) {
+			int target = number < targets.length ? targets[number] : -1;
+			if (target != -1 && playerTiles[number] != target) {
+				Player player = players.get(number);
+				Tile tile = tileAt(target);
+				tile.setPlayer(player);
+				player.setXPos(tile.getX());
+				player.setYPos(tile.getY());
+				player.setRoom(tile.getRoom());
+			}
+			if (number < targets.length) {
+				setAlive(players.get(number), (state.getAlive() & (1L << number)) != 0);
+			}
+		}
+
+		targets = state.getWeaponTiles();
+		for (int number = 0; number < weapons.size(); number++) {
+			int target = number < targets.length ? targets[number] : -1;
+			int current = weaponTiles[number];
+			if (current != target && current != -1) {
+				if (weaponAt[current] == number + 1) {
+					tileAt(current).setWeapon(null);
+				}
+				weaponTiles[number] = -1;
+			}
+		}
+		for (int number = 0; number < weapons.size(); number++) {
+			int target = number < targets.length ? targets[number] : -1;
+			if (target != -1 && weaponTiles[number] != target) {
+				tileAt(target).setWeapon(weapons.get(number));
+			}
+		}
+		setTurn(state.getTurn());
+	}
+
+	/**
+	 * Gets the number of a player without numbering it, so that the index is left as it was
+	 *
+	 * @param player Player to look up
+	 * @return the number, or -1 if the player hasn't been numbered
+	 */
+	int findNumber(Player player) {
+		Integer number = playerNumbers.get(player);
+		return number == null ? -1 : number;
+	}
+
+	/**
+	 * Gets the number of a weapon without numbering it, so that the index is left as it was
+	 *
+	 * @param weapon Weapon to look up
+	 * @return the number, or -1 if the weapon hasn't been numbered
+	 */
+	int findNumber(Weapon weapon) {
+		Integer number = weaponNumbers.get(weapon);
+		return number == null ? -1 : number;
+	}
+
+	/**
+	 * Gets the number of a player, numbering it if it hasn't been seen before
+	 *
+	 * @param player Player to number
+	 * @return the number
+	 */
+	int numberOf(Player player) {
+		Integer number = playerNumbers.get(player);
+		if (number == null) {
+			number = players.size();
+			players.add(player);
+			playerNumbers.put(player, number);
+			playerTiles = Arrays.copyOf(playerTiles, players.size());
+			playerTiles[number] = -1;
+			if (player.isAlive()) {
+				alive |= 1L << number;
+				hash ^= Zobrist.alive(number);
+			}
+		}
+		return number;
+	}
+
+	/**
+	 * Gets the number of a weapon, numbering it if it hasn't been seen before
+	 *
+	 * @param weapon Weapon to number
+	 * @return the number
+	 */
+	int numberOf(Weapon weapon) {
+		Integer number = weaponNumbers.get(weapon);
+		if (number == null) {
+			number = weapons.size();
+			weapons.add(weapon);
+			weaponNumbers.put(weapon, number);
+			weaponTiles = Arrays.copyOf(weaponTiles, weapons.size());
+			weaponTiles[number] = -1;
+		}
+		return number;
+	}
+
+	/**
+	 * Gets the index of a tile in the arrays, which is y * width + x
+	 *
+	 * @param tile Tile to find
+	 * @return the index
+	 */
+	private int indexOf(Tile tile) {
+		return tile.getY() * board.getWidth() + tile.getX();
+	}
+
+	/**
+	 * Gets the tile at an index in the arrays
+	 *
+	 * @param index Index of the tile, or -1
+	 * @return the tile, or null for -1
+	 */
+	Tile tileAt(int index) {
+		return index == -1 ? null : board.getTiles()[index % board.getWidth()][index / board.getWidth()];
+	}
+
+	/**
+	 * Tells the room a tile is in whether the tile is now free
+	 *
+	 * @param tile Tile that changed
+	 * @param index Index of the tile
+	 */
+	private void updateSlot(Tile tile, int index) {
+		Room room = tile.getRoom();
+		if (room != null) {
+			room.setSlotFree(tile, playerAt[index] == 0 && weaponAt[index] == 0);
+		}
+	}
+
+	/**
+	 * Sets or clears the bit for a tile in an occupancy mask
+	 *
+	 * @param mask Occupancy mask
+	 * @param index Index of the tile
+	 * @param occupied Is the tile now occupied
+	 */
+	private void updateBit(long[] mask, int index, boolean occupied) {
+		if (occupied) {
+			BoardBits.set(mask, index);
+		} else {
+			BoardBits.clear(mask, index);
+		}
+	}
+}
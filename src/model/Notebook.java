@@ -0,0 +1,403 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * What one player can work out about where every card is, from their own hand and from what they've seen of the
+ * suggestions made so far.
+ *
+ * Each card is with one owner: a player, the cards left over after dealing, or the solution. For every owner the
+ * notebook keeps a mask of the cards they are known to have and a mask of the cards they are known not to have, in the
+ * bits of {@link CardId}. Each thing learnt is added to the masks and then the rules of the game are applied over and
+ * over until nothing more follows:
+ *
+ * - a card one owner has isn't with anyone else, and a card every other owner doesn't have is with the one left
+ * - an owner known to have as many cards as they were dealt has nothing else, and an owner with only that many cards
+ * left that they could have has all of them
+ * - the solution is one card of each type
+ * - a player who showed the suggesting player a card has at least one of the cards suggested, which is settled once
+ * only one of them is left that they could have
+ *
+ * The rules are a handful of ANDs and ORs per owner, so the notebook stays up to date after every suggestion.
+ *
+ * Something learnt that contradicts what is already known, such as a misreported refutation, is ignored and the
+ * notebook is left as it was. The notebook counts how many times this has happened, so that it can be shown.
+ *
+ * @author Marcel van Workum
+ */
+public class Notebook {
+
+	/**
+	 * Cards of each type, the solution having one of each
+	 */
+	private static final int[] TYPES = { CardId.CHARACTERS, CardId.WEAPONS, CardId.ROOMS };
+
+	/**
+	 * Players in the game, each of which is the owner at its index. The cards left over and the solution are the two
+	 * owners after them.
+	 */
+	private final List<Player> players;
+	private final int leftOver;
+	private final int solution;
+
+	/**
+	 * Cards each owner is known to have and known not to have, and the number of cards they have
+	 */
+	private final int[] has;
+	private final int[] hasNot;
+	private final int[] sizes;
+
+	/**
+	 * Refutations that aren't settled yet, each an owner and the cards they have at least one of
+	 */
+	private int[] refuters = new int[8];
+	private int[] refuted = new int[8];
+	private int refutationCount;
+
+	/**
+	 * Number of times the notebook has changed
+	 */
+	private int version;
+
+	/**
+	 * Set when the rules find that what has been learnt can't all be true
+	 */
+	private boolean contradiction;
+
+	/**
+	 * Number of things learnt that were ignored because they contradicted what was known
+	 */
+	private int ignoredCount;
+
+	/**
+	 * Constructor. Must be called after the cards have been dealt.
+	 *
+	 * @param players Players in the game
+	 * @param observer Player whose notebook this is
+	 * @param leftOverCount Number of cards left over after dealing, which nobody sees
+	 */
+	public Notebook(List<Player> players, Player observer, int leftOverCount) {
+		this.players = new ArrayList<>(players);
+		this.leftOver = players.size();
+		this.solution = players.size() + 1;
+		this.has = new int[players.size() + 2];
+		this.hasNot = new int[players.size() + 2];
+		this.sizes = new int[players.size() + 2];
+
+		// everyone knows how many cards each player was dealt
+		for (int i = 0; i < players.size(); i++) {
+			sizes[i] = Integer.bitCount(players.get(i).getHand());
+		}
+		sizes[leftOver] = leftOverCount;
+		sizes[solution] = TYPES.length;
+
+		// and the observer knows their own hand
+		int owner = this.players.indexOf(observer);
+		if (owner != -1) {
+			has[owner] = observer.getHand();
+			hasNot[owner] = CardId.ALL & ~observer.getHand();
+		}
+		propagate();
+	}
+
+	/**
+	 * Notes that a player couldn't refute a suggestion, so has none of its cards
+	 *
+	 * @param player Player that couldn't refute
+	 * @param cards Bits of the cards suggested
+	 * @return does it fit what is known, otherwise it is ignored
+	 */
+	public boolean cannotRefute(Player player, int cards) {
+		return learn(ownerOf(player), 0, cards, 0);
+	}
+
+	/**
+	 * Notes that a player showed the observer a card
+	 *
+	 * @param player Player that showed the card
+	 * @param card Card shown
+	 * @return does it fit what is known, otherwise it is ignored
+	 */
+	public boolean shown(Player player, CardId card) {
+		return learn(ownerOf(player), card.bit(), 0, 0);
+	}
+
+	/**
+	 * Notes that a player refuted a suggestion by showing someone else a card, so has at least one of its cards
+	 *
+	 * @param player Player that refuted
+	 * @param cards Bits of the cards suggested
+	 * @return does it fit what is known, otherwise it is ignored
+	 */
+	public boolean refuted(Player player, int cards) {
+		return learn(ownerOf(player), 0, 0, cards);
+	}
+
+	/**
+	 * @param player Player to look up
+	 * @return the bits of the cards the player is known to have
+	 */
+	public int getHas(Player player) {
+		return has[ownerOf(player)];
+	}
+
+	/**
+	 * @param player Player to look up
+	 * @return the bits of the cards the player is known not to have
+	 */
+	public int getHasNot(Player player) {
+		return hasNot[ownerOf(player)];
+	}
+
+	/**
+	 * @return the bits of the cards known to be in the solution
+	 */
+	public int getSolution() {
+		return has[solution];
+	}
+
+	/**
+	 * @return the bits of the cards that could still be in the solution
+	 */
+	public int getPossibleSolution() {
+		return CardId.ALL & ~hasNot[solution];
+	}
+
+	/**
+	 * @return is the whole solution known
+	 */
+	public boolean isSolved() {
+		return Integer.bitCount(has[solution]) == TYPES.length;
+	}
+
+	/**
+	 * @return the number of times the notebook has changed, which goes up whenever something is learnt
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return the number of things learnt that were ignored because they contradicted what was known
+	 */
+	public int getIgnoredCount() {
+		return ignoredCount;
+	}
+
+	/**
+	 * @return the number of owners, which are the players, then the cards left over and then the solution
+	 */
+	int getOwnerCount() {
+		return has.length;
+	}
+
+	/**
+	 * @param owner Owner to look up
+	 * @return the bits of the cards the owner is known to have
+	 */
+	int hasOf(int owner) {
+		return has[owner];
+	}
+
+	/**
+	 * @param owner Owner to look up
+	 * @return the bits of the cards the owner is known not to have
+	 */
+	int hasNotOf(int owner) {
+		return hasNot[owner];
+	}
+
+	/**
+	 * @param owner Owner to look up
+	 * @return the number of cards the owner has
+	 */
+	int sizeOf(int owner) {
+		return sizes[owner];
+	}
+
+	/**
+	 * @return the refutations that aren't settled yet, as pairs of an owner and the cards they have one of
+	 */
+	int[][] getRefutations() {
+		return new int[][] { Arrays.copyOf(refuters, refutationCount), Arrays.copyOf(refuted, refutationCount) };
+	}
+
+	/**
+	 * Gets the owner of a player
+	 *
+	 * @param player Player to look up
+	 * @return the owner
+	 */
+	private int ownerOf(Player player) {
+		int owner = players.indexOf(player);
+		if (owner == -1) {
+			throw new IllegalArgumentException("Player is not in the game: " + player.getName());
+		}
+		return owner;
+	}
+
+	/**
+	 * Adds something learnt about an owner and works out what follows. If it contradicts what is already known the
+	 * notebook is put back as it was.
+	 *
+	 * @param owner Owner learnt about
+	 * @param holds Bits of the cards the owner has
+	 * @param lacks Bits of the cards the owner doesn't have
+	 * @param refutes Bits of the cards the owner has at least one of, or 0
+	 * @return does it fit what is known
+	 */
+	private boolean learn(int owner, int holds, int lacks, int refutes) {
+		int[] savedHas = has.clone();
+		int[] savedHasNot = hasNot.clone();
+		int savedRefutationCount = refutationCount;
+		int[] savedRefuters = Arrays.copyOf(refuters, refutationCount);
+		int[] savedRefuted = Arrays.copyOf(refuted, refutationCount);
+		int savedVersion = version;
+
+		contradiction = false;
+		hold(owner, holds);
+		lack(owner, lacks);
+		if (refutes != 0) {
+			if (refutationCount == refuters.length) {
+				refuters = Arrays.copyOf(refuters, refutationCount * 2);
+				refuted = Arrays.copyOf(refuted, refutationCount * 2);
+			}
+			refuters[refutationCount] = owner;
+			refuted[refutationCount] = refutes;
+			refutationCount++;
+		}
+		propagate();
+		if (!contradiction) return true;
+
+		System.arraycopy(savedHas, 0, has, 0, has.length);
+		System.arraycopy(savedHasNot, 0, hasNot, 0, hasNot.length);
+		System.arraycopy(savedRefuters, 0, refuters, 0, savedRefutationCount);
+		System.arraycopy(savedRefuted, 0, refuted, 0, savedRefutationCount);
+		refutationCount = savedRefutationCount;
+		version = savedVersion;
+		contradiction = false;
+		ignoredCount++;
+		return false;
+	}
+
+	/**
+	 * Applies the rules of the game until nothing more can be worked out, or until they find a contradiction
+	 */
+	private void propagate() {
+		boolean changed = true;
+		while (changed && !contradiction) {
+			changed = false;
+
+			// a card one owner has isn't with anyone else
+			int held = 0;
+			for (int owner = 0; owner < has.length; owner++) {
+				held |= has[owner];
+			}
+			for (int owner = 0; owner < has.length; owner++) {
+				changed |= lack(owner, held & ~has[owner]);
+			}
+
+			// a card that only one owner could have is theirs. once and twice count the owners that could have each card,
+			// stopping at two
+			int once = 0;
+			int twice = 0;
+			for (int owner = 0; owner < has.length; owner++) {
+				int possible = CardId.ALL & ~hasNot[owner];
+				twice |= once & possible;
+				once |= possible;
+			}
+			if (once != CardId.ALL) {
+				// nobody can have a card
+				contradiction = true;
+				return;
+			}
+			for (int owner = 0; owner < has.length; owner++) {
+				changed |= hold(owner, once & ~twice & ~hasNot[owner]);
+			}
+
+			// an owner with all their cards known has nothing else, and one with only their number of cards left has
+			// all of those
+			for (int owner = 0; owner < has.length; owner++) {
+				int possible = CardId.ALL & ~hasNot[owner];
+				if (Integer.bitCount(has[owner]) == sizes[owner]) {
+					changed |= lack(owner, possible & ~has[owner]);
+				} else if (Integer.bitCount(possible) == sizes[owner]) {
+					changed |= hold(owner, possible);
+				}
+			}
+
+			// the solution is one card of each type
+			for (int type : TYPES) {
+				if ((has[solution] & type) != 0) {
+					changed |= lack(solution, type & ~has[solution]);
+				}
+				int possible = type & ~hasNot[solution];
+				if (Integer.bitCount(possible) == 1) {
+					changed |= hold(solution, possible);
+				}
+			}
+
+			// a refutation is settled once the refuter is known to have one of its cards, or only has one left they
+			// could have
+			for (int i = refutationCount - 1; i >= 0; i--) {
+				int owner = refuters[i];
+				int cards = refuted[i] & ~hasNot[owner];
+				if ((cards & has[owner]) != 0 || Integer.bitCount(cards) == 1) {
+					if ((cards & has[owner]) == 0) {
+						changed |= hold(owner, cards);
+					}
+					refutationCount--;
+					refuters[i] = refuters[refutationCount];
+					refuted[i] = refuted[refutationCount];
+				} else if (cards == 0) {
+					// the refuter can't have any of the cards
+					contradiction = true;
+					return;
+				} else {
+					refuted[i] = cards;
+				}
+			}
+		}
+		version++;
+	}
+
+	/**
+	 * Notes that an owner has some cards
+	 *
+	 * @param owner Owner of the cards
+	 * @param cards Bits of the cards
+	 * @return was anything new learnt
+	 */
+	private boolean hold(int owner, int cards) {
+		int added = cards & ~has[owner];
+		if (added == 0) return false;
+		if ((added & hasNot[owner]) != 0) {
+			// an owner can't both have and not have a card
+			contradiction = true;
+			return false;
+		}
+		has[owner] |= added;
+		return true;
+	}
+
+	/**
+	 * Notes that an owner doesn't have some cards
+	 *
+	 * @param owner Owner that doesn't have the cards
+	 * @param cards Bits of the cards
+	 * @return was anything new learnt
+	 */
+	private boolean lack(int owner, int cards) {
+		int added = cards & ~hasNot[owner];
+		if (added == 0) return false;
+		if ((added & has[owner]) != 0) {
+			// an owner can't both have and not have a card
+			contradiction = true;
+			return false;
+		}
+		hasNot[owner] |= added;
+		return true;
+	}
+}
@@ -0,0 +1,61 @@
+package model;
+
+/**
+ * A passage out of a {@link Room} that takes a player straight to another room without walking. The standard board
+ * has two secret passages each way between opposite corners, and other boards can add their own in their legend.
+ * A passage only goes one way, so a passage that can be taken both ways is a pair of passages.
+ *
+ * @author Marcel van Workum
+ */
+public class Passage {
+
+	/**
+	 * The kinds of passage, which only differ in how they are described to the players
+	 */
+	public enum Kind {
+		SECRET, ONE_WAY, TELEPORTER
+	}
+
+	private final Room from;
+	private final Room to;
+	private final Kind kind;
+
+	/**
+	 * Constructor
+	 *
+	 * @param from Room the passage is taken from
+	 * @param to Room the passage leads to
+	 * @param kind Kind of passage
+	 */
+	public Passage(Room from, Room to, Kind kind) {
+		this.from = from;
+		this.to = to;
+		this.kind = kind;
+	}
+
+	/**
+	 * @return the room the passage is taken from
+	 */
+	public Room getFrom() {
+		return from;
+	}
+
+	/**
+	 * @return the room the passage leads to
+	 */
+	public Room getTo() {
+		return to;
+	}
+
+	/**
+	 * @return the kind of passage
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	@Override
+	public String toString() {
+		return from + " -> " + to;
+	}
+}
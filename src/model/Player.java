@@ -5,6 +5,7 @@ import view.textui.UI;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -44,6 +45,14 @@ public class Player extends Character {
 	 */
 	private Set<Card> cards;
 
+	/**
+	 * Bits of the cards in the player's hand, and of the cards they have been shown
+	 *
+	 * @see CardId
+	 */
+	private int hand;
+	private int seen;
+
 	/**
 	 * Player number which is used to display the player on the board, with
 	 * their corresponding number
@@ -137,10 +146,37 @@ public class Player extends Character {
 	}
 
 	/**
-	 * @return the cards
+	 * @return the cards, which are added to with {@link #addCard(Card)}
 	 */
 	public Set<Card> getCards() {
-		return cards;
+		return Collections.unmodifiableSet(cards);
+	}
+
+	/**
+	 * Adds a card to the player's hand
+	 *
+	 * @param card Card dealt to the player
+	 */
+	public void addCard(Card card) {
+		cards.add(card);
+		hand |= card.bit();
+	}
+
+	/**
+	 * @return the bits of the cards in the player's hand
+	 */
+	public int getHand() {
+		return hand;
+	}
+
+	/**
+	 * Checks whether the player holds any of a set of cards
+	 *
+	 * @param mask Bits of the cards
+	 * @return Does the player hold any of them
+	 */
+	public boolean holdsAny(int mask) {
+		return (hand & mask) != 0;
 	}
 
 	/**
@@ -188,10 +224,27 @@ public class Player extends Character {
 	}
 
 	/**
-	 * @return the suggestions
+	 * @return the suggestions, which are added to with {@link #addSuggestion(Card)}
 	 */
 	public Set<Card> getSuggestions() {
-		return successfulSuggestions;
+		return Collections.unmodifiableSet(successfulSuggestions);
+	}
+
+	/**
+	 * Adds a card the player has been shown after a suggestion
+	 *
+	 * @param card Card the player was shown
+	 */
+	public void addSuggestion(Card card) {
+		successfulSuggestions.add(card);
+		seen |= card.bit();
+	}
+
+	/**
+	 * @return the bits of the cards the player has been shown
+	 */
+	public int getSeen() {
+		return seen;
 	}
 
 	/**
@@ -226,6 +279,12 @@ public class Player extends Character {
 	 * @return the boolean
 	 */
 	public boolean containsCardWithName(String name) {
+		int bit = CardId.bitOf(name);
+		if (bit != 0) {
+			return (hand & bit) != 0;
+		}
+
+		// cards that aren't in the catalogue can only be found by name
 		for (Card card : cards) {
 			if (card.getName().equals(name)) {
 				return true;
@@ -0,0 +1,450 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Precomputed tables of which tiles can be reached with each roll from every corridor tile and every room on a
+ * {@link Board}.
+ *
+ * The tables only hold the layout of the board, so every board with the same layout can share them, which
+ * {@link BoardImage} does for the boards created from it. Rooms are known by name rather than by the rooms of any one
+ * game. Players and weapons can be walked past but not moved onto, so the occupancy masks of the moving player's
+ * board are taken out when a table is looked up.
+ *
+ * Every origin is independent, so the tables are built in parallel, one task per row of the board. Building can be
+ * skipped altogether by saving the tables next to the board file, where they are loaded from on the next start as
+ * long as the layout hasn't changed.
+ *
+ * @author Marcel van Workum
+ */
+public class ReachabilityTables {
+
+	/**
+	 * Highest roll that the tables cover, which is the most two six sided dice can roll
+	 */
+	public static final int MAX_ROLL = 12;
+
+	/**
+	 * Largest number of walkable tiles that tables will be built for, as they grow with the square of the board
+	 */
+	public static final int MAX_TILES = 1024;
+
+	/**
+	 * Marks the start of a saved tables file, followed by the format version
+	 */
+	private static final int MAGIC = 0x43524541;
+	private static final int FORMAT = 2;
+
+	/**
+	 * Distance stored for tiles that are further than {@link #MAX_ROLL} away, or can't be reached at all
+	 */
+	private static final byte FAR = Byte.MAX_VALUE;
+
+	/**
+	 * x and y offsets of the four tiles next to a tile
+	 */
+	private static final int[] STEP_X = { -1, 0, 1, 0 };
+	private static final int[] STEP_Y = { 0, -1, 0, 1 };
+
+	private final int width;
+	private final int height;
+	private final int words;
+
+	/**
+	 * Tiles that a move can end on, from the {@link BoardBits} of the board the tables were made for
+	 */
+	private final long[] target;
+
+	/**
+	 * Hash of the layout the tables were made for, which is saved with them
+	 */
+	private final long layoutHash;
+
+	/**
+	 * Maps a tile's position (y * width + x) to its origin, or -1 if the tile isn't a corridor origin
+	 */
+	private final int[] tileOrigins;
+
+	/**
+	 * Maps the name of each room with doors to its origin
+	 */
+	private final Map<String, Integer> roomOrigins = new HashMap<>();
+
+	/**
+	 * Doors of each room origin as positions, used while building
+	 */
+	private final Map<String, int[]> roomDoors = new HashMap<>();
+
+	/**
+	 * Walking distance from each origin to each tile, capped at {@link #FAR}
+	 */
+	private final byte[][] distances;
+
+	/**
+	 * Reachable tiles from each origin, one mask per roll from 0 to {@link #MAX_ROLL}
+	 */
+	private final long[][] masks;
+
+	private long buildNanos;
+	private boolean loaded;
+
+	/**
+	 * Constructor, which numbers the origins but leaves the tables empty
+	 *
+	 * @param board Board the tables are for
+	 */
+	private ReachabilityTables(Board board) {
+		this.width = board.getWidth();
+		this.height = board.getHeight();
+		this.words = board.getBits().getWords();
+		this.target = board.getBits().getTarget().clone();
+		this.layoutHash = layoutHash(board);
+
+		Tile[][] tiles = board.getTiles();
+		int count = 0;
+		tileOrigins = new int[width * board.getHeight()];
+		for (int y = 0; y < board.getHeight(); y++) {
+			for (int x = 0; x < width; x++) {
+				Tile tile = tiles[x][y];
+				boolean corridor = tile != null && tile.isWalkable() && !tile.isRoomTile();
+				tileOrigins[y * width + x] = corridor ? count++ : -1;
+			}
+		}
+
+		List<Room> rooms = new ArrayList<>(board.getRooms().values());
+		rooms.sort(Comparator.comparingInt(Room::getRoomNumber));
+		for (Room room : rooms) {
+			List<Tile> doors = room.getDoors();
+			if (doors.isEmpty()) continue;
+
+			int[] sources = new int[doors.size()];
+			for (int i = 0; i < sources.length; i++) {
+				sources[i] = doors.get(i).getY() * width + doors.get(i).getX();
+			}
+			roomOrigins.put(room.getName(), count++);
+			roomDoors.put(room.getName(), sources);
+		}
+
+		distances = new byte[count][];
+		masks = new long[count][];
+	}
+
+	/**
+	 * Checks whether a board is small enough to have tables
+	 *
+	 * @param board Board to check
+	 * @return Can tables be built for the board
+	 */
+	public static boolean canBuild(Board board) {
+		int walkable = 0;
+		for (Tile[] column : board.getTiles()) {
+			for (Tile tile : column) {
+				if (tile != null && tile.isWalkable()) walkable++;
+			}
+		}
+		return walkable <= MAX_TILES;
+	}
+
+	/**
+	 * Loads the tables from a file if it was saved for the same layout, otherwise builds them and saves them to the
+	 * file for next time.
+	 *
+	 * @param board Board the tables are for
+	 * @param file File the tables are saved in
+	 * @return the tables
+	 */
+	public static ReachabilityTables loadOrBuild(Board board, File file) {
+		if (file.exists()) {
+			try {
+				ReachabilityTables tables = load(board, file);
+				if (tables != null) return tables;
+			} catch (IOException e) {
+				System.out.println("Cannot read reachability tables: " + file);
+			}
+		}
+
+		ReachabilityTables tables = build(board);
+		try {
+			tables.save(file);
+		} catch (IOException e) {
+			System.out.println("Cannot save reachability tables: " + file);
+		}
+		return tables;
+	}
+
+	/**
+	 * Builds the tables with a breadth first search from every origin, with the rows of the board and then the rooms
+	 * shared out over the common fork join pool.
+	 *
+	 * @param board Board the tables are for
+	 * @return the tables
+	 */
+	public static ReachabilityTables build(Board board) {
+		long start = System.nanoTime();
+		ReachabilityTables tables = new ReachabilityTables(board);
+
+		int cells = tables.tileOrigins.length;
+		IntStream.range(0, board.getHeight()).parallel().forEach(y -> {
+			int[] queue = new int[cells];
+			for (int x = 0; x < tables.width; x++) {
+				int origin = tables.tileOrigins[y * tables.width + x];
+				if (origin != -1) {
+					tables.search(board, origin, new int[] { y * tables.width + x }, queue);
+				}
+			}
+		});
+
+		tables.roomOrigins.entrySet().parallelStream().forEach(entry -> {
+			int[] sources = tables.roomDoors.get(entry.getKey());
+			tables.search(board, entry.getValue(), sources, new int[cells]);
+		});
+
+		tables.buildNanos = System.nanoTime() - start;
+		return tables;
+	}
+
+	/**
+	 * Loads tables that were saved for a board
+	 *
+	 * @param board Board the tables are for
+	 * @param file File the tables were saved in
+	 * @return the tables, or null if the file was saved for a different layout
+	 * @throws IOException if the file can't be read
+	 */
+	public static ReachabilityTables load(Board board, File file) throws IOException {
+		long start = System.nanoTime();
+		ReachabilityTables tables = new ReachabilityTables(board);
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT || in.readInt() != tables.width
+					|| in.readInt() != board.getHeight() || in.readLong() != tables.layoutHash
+					|| in.readInt() != MAX_ROLL || in.readInt() != tables.distances.length) {
+				return null;
+			}
+
+			for (int origin = 0; origin < tables.distances.length; origin++) {
+				byte[] row = new byte[tables.tileOrigins.length];
+				in.readFully(row);
+				tables.setDistances(origin, row);
+			}
+		}
+
+		tables.buildNanos = System.nanoTime() - start;
+		tables.loaded = true;
+		return tables;
+	}
+
+	/**
+	 * Saves the tables to a file, along with a header describing the layout they were built for
+	 *
+	 * @param file File to save to
+	 * @throws IOException if the file can't be written
+	 */
+	public void save(File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT);
+			out.writeInt(width);
+			out.writeInt(height);
+			out.writeLong(layoutHash);
+			out.writeInt(MAX_ROLL);
+			out.writeInt(distances.length);
+			for (byte[] row : distances) {
+				out.write(row);
+			}
+		}
+	}
+
+	/**
+	 * Works out which tiles the player could move to with the given roll, leaving out any that are occupied
+	 *
+	 * @param player Player that is moving
+	 * @param roll Roll that the player has made
+	 * @param bits Bitboard of the board the player is on, which says which tiles are occupied
+	 * @param result Array of {@link BoardBits#getWords()} longs to write the reachable tiles to
+	 * @return false if the tables don't cover the player's position or roll, in which case result is untouched
+	 */
+	public boolean reachable(Player player, int roll, BoardBits bits, long[] result) {
+		if (roll < 0 || roll > MAX_ROLL) return false;
+
+		int origin = origin(player);
+		if (origin == -1) return false;
+
+		long[] mask = masks[origin];
+		long[] playerOccupied = bits.getPlayerOccupied();
+		long[] weaponOccupied = bits.getWeaponOccupied();
+		int offset = roll * words;
+		for (int i = 0; i < words; i++) {
+			result[i] = mask[offset + i] & ~playerOccupied[i] & ~weaponOccupied[i];
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the walking distance from the player to a tile, ignoring players and weapons
+	 *
+	 * @param player Player that is moving
+	 * @param to Tile being walked to
+	 * @return Number of steps, or -1 if the tile is more than {@link #MAX_ROLL} away or the tables don't cover the
+	 * player's position
+	 */
+	public int distance(Player player, Tile to) {
+		int origin = origin(player);
+		if (origin == -1) return -1;
+
+		byte distance = distances[origin][to.getY() * width + to.getX()];
+		return distance == FAR ? -1 : distance;
+	}
+
+	/**
+	 * Gets the origin that a player moves from
+	 *
+	 * @param player Player that is moving
+	 * @return the origin, or -1 if there isn't one
+	 */
+	private int origin(Player player) {
+		if (player.isInRoom()) {
+			Integer origin = roomOrigins.get(player.getRoom().getName());
+			return origin == null ? -1 : origin;
+		}
+
+		int x = player.getXPos();
+		int y = player.getYPos();
+		if (x < 0 || y < 0 || x >= width || y >= height) return -1;
+		return tileOrigins[y * width + x];
+	}
+
+	/**
+	 * Breadth first search out from the sources of an origin, up to {@link #MAX_ROLL} steps
+	 *
+	 * @param board Board the tables are being built from
+	 * @param origin Origin being searched from
+	 * @param sources Positions the search starts from
+	 * @param queue Working space of width * height ints
+	 */
+	private void search(Board board, int origin, int[] sources, int[] queue) {
+		Tile[][] tiles = board.getTiles();
+		byte[] row = new byte[tileOrigins.length];
+		Arrays.fill(row, FAR);
+
+		int head = 0;
+		int tail = 0;
+		for (int source : sources) {
+			if (row[source] == FAR) {
+				row[source] = 0;
+				queue[tail++] = source;
+			}
+		}
+
+		while (head < tail) {
+			int current = queue[head++];
+			int steps = row[current] + 1;
+			if (steps > MAX_ROLL) continue;
+
+			int x = current % width;
+			int y = current / width;
+			for (int i = 0; i < 4; i++) {
+				int nextX = x + STEP_X[i];
+				int nextY = y + STEP_Y[i];
+				if (!board.isInPlayArea(nextX, nextY) || !tiles[nextX][nextY].isWalkable()) continue;
+
+				int next = nextY * width + nextX;
+				if (row[next] == FAR) {
+					row[next] = (byte) steps;
+					queue[tail++] = next;
+				}
+			}
+		}
+
+		setDistances(origin, row);
+	}
+
+	/**
+	 * Stores the distances from an origin and builds its mask for each roll
+	 *
+	 * @param origin Origin the distances are from
+	 * @param row Distance to each tile
+	 */
+	private void setDistances(int origin, byte[] row) {
+		long[] mask = new long[(MAX_ROLL + 1) * words];
+		for (int index = 0; index < row.length; index++) {
+			if (row[index] > MAX_ROLL || row[index] < 0 || !BoardBits.isSet(target, index)) continue;
+
+			for (int roll = row[index]; roll <= MAX_ROLL; roll++) {
+				BoardBits.set(mask, roll * words * 64 + index);
+			}
+		}
+
+		distances[origin] = row;
+		masks[origin] = mask;
+	}
+
+	/**
+	 * Hashes the layout of a board, so that saved tables are only loaded for the board they were built for. The kind
+	 * of every tile is part of the hash, as doors and floor look the same, and so are the passages between rooms.
+	 *
+	 * @param board Board to hash
+	 * @return the hash
+	 */
+	private static long layoutHash(Board board) {
+		long hash = 0xcbf29ce484222325L;
+		Tile[][] tiles = board.getTiles();
+		for (int y = 0; y < board.getHeight(); y++) {
+			for (int x = 0; x < board.getWidth(); x++) {
+				Tile tile = tiles[x][y];
+				int value = 0;
+				if (tile != null) {
+					int room = tile.getRoom() == null ? 0 : tile.getRoom().getRoomNumber();
+					value = (tile.getName() * 31 + room) * 31 + tile.getType().getKind().ordinal();
+				}
+				hash = (hash ^ value) * 0x100000001b3L;
+			}
+		}
+
+		List<Room> rooms = new ArrayList<>(board.getRooms().values());
+		rooms.sort(Comparator.comparingInt(Room::getRoomNumber));
+		for (Room room : rooms) {
+			for (Passage passage : room.getPassages()) {
+				int value = (room.getRoomNumber() * 31 + passage.getTo().getRoomNumber()) * 31
+						+ passage.getKind().ordinal();
+				hash = (hash ^ value) * 0x100000001b3L;
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * @return the time taken to build or load the tables, in milliseconds
+	 */
+	public double getBuildMillis() {
+		return buildNanos / 1e6;
+	}
+
+	/**
+	 * @return were the tables loaded from a file rather than built
+	 */
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * @return the number of corridor tiles and rooms that the tables cover
+	 */
+	public int getOriginCount() {
+		return distances.length;
+	}
+}
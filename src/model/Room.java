@@ -1,12 +1,23 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 /**
- * Class representing a room in the Cluedo game. A room may have a connecting room which a player can take as a
- * shortcut to that room. The room also has a list of tiles and a list of doors in that room. The list of doors is
+ * Class representing a room in the Cluedo game. A room may have passages which a player can take as a shortcut to
+ * other rooms, the first of which is the room's connecting room. The room also has a list of tiles and a list of doors
+ * in that room. The list of doors is
  * used for the pathing algorithm, and so a player can leave the room from any door.
  *
+ * The floor tiles of the room, not counting its doors, are the slots that players and weapons are put on. The room
+ * keeps the free ones at the front of an array, and the board tells it whenever a slot is occupied or vacated, so a
+ * free slot can be found, or picked at random, without looking through the room.
+ *
  * @author Marcel van Workum
  * @author Reuben Puketapu
  */
@@ -14,7 +25,21 @@ public class Room {
 
 	private ArrayList<Tile> tiles;
 	private ArrayList<Tile> doors;
-	private Room connectingRoom;
+
+	/**
+	 * Passages out of the room, and a count of the changes to them so that routes planned through them can tell when
+	 * they are out of date
+	 */
+	private final List<Passage> passages = new ArrayList<>();
+	private int passageVersion;
+
+	/**
+	 * Slots of the room, with the free ones first, and where each slot is in the array
+	 */
+	private Tile[] slots = new Tile[0];
+	private int slotCount;
+	private int freeCount;
+	private final Map<Tile, Integer> slotPositions = new HashMap<>();
 
 	private String name;
 	private int roomNumber;
@@ -36,82 +61,125 @@ public class Room {
 	}
 
 	/**
-	 * Method to assign a weapon to a room, by iterating through all the tiles in the room and
-	 * assigning the weapon to a empty tile.
+	 * Method to assign a weapon to a room, by taking it off the tile it is currently on and assigning it to an empty
+	 * tile in the room.
 	 *
-	 * @param allTiles Tiles in the room
+	 * @param board Board the room is on
 	 * @param weapon Weapon to assign
 	 */
-	public void addWeaponToAvailableTile(Tile[][] allTiles, Weapon weapon) {
-		// Checks if the weapon is already on the same tile
-		for (Tile tile : tiles) {
-			if (tile.getWeapon() != null) {
-				if (tile.getWeapon().equals(weapon)) {
-					return;
-				}
+	public void addWeaponToAvailableTile(Board board, Weapon weapon) {
+		// Checks if the weapon is already in the room
+		Tile current = board.getLocations().getTile(weapon);
+		if (current != null) {
+			if (current.getRoom() == this) {
+				return;
 			}
-		}
 
-		// Removes any instance of the weapon on the board
-		for (Tile[] tileCollection : allTiles) {
-			for (Tile tile : tileCollection) {
-				if (tile.getWeapon() != null) {
-					if (tile.getWeapon().equals(weapon)) {
-						tile.setWeapon(null);
-					}
-				}
-			}
+			// Removes the weapon from its old tile
+			current.setWeapon(null);
 		}
 
 		// Adds the tile to an available tile in the room
-		for (Tile tile : tiles) {
-			if (!tile.isDoor() && !tile.isWallTile() && tile.isRoomTile() && !tile.isOccupied()) {
-				tile.setWeapon(weapon);
-				break;
-			}
+		Tile tile = getFreeSlot();
+		if (tile != null) {
+			tile.setWeapon(weapon);
 		}
 	}
 
 	/**
-	 * Method to assign a Player to a room, by iterating through all the tiles in the room and
-	 * assigning the player to a empty tile.
+	 * Method to assign a Player to a room, by taking them off the tile they are currently on and assigning them to an
+	 * empty tile in the room.
 	 *
-	 * @param allTiles All the tiles on the board
+	 * @param board Board the room is on
 	 * @param player Player to be assigned
 	 */
-	public void addPlayerToAvailableTile(Tile[][] allTiles, Player player) {
-		// Checks if the weapon is already on the same tile
-		for (Tile tile : tiles) {
-			if (tile.getPlayer() != null) {
-				if (tile.getPlayer().equals(player)) {
-					return;
-				}
+	public void addPlayerToAvailableTile(Board board, Player player) {
+		// Checks if the player is already in the room
+		Tile current = board.getLocations().getTile(player);
+		if (current != null) {
+			if (current.getRoom() == this) {
+				return;
 			}
-		}
 
-		// Removes any instance of the weapon on the board
-		for (Tile[] tileCollection : allTiles) {
-			for (Tile tile : tileCollection) {
-				if (tile.getPlayer() != null) {
-					if (tile.getPlayer().equals(player)) {
-						tile.setPlayer(null);
-					}
-				}
-			}
+			// Removes the player from its old tile
+			current.setPlayer(null);
 		}
 
 		// Adds the tile to an available tile in the room
-		for (Tile tile : tiles) {
-			if (!tile.isDoor() && !tile.isWallTile() && tile.isRoomTile() && !tile.isOccupied()) {
-				tile.setPlayer(player);
-				player.setXPos(tile.getX());
-				player.setYPos(tile.getY());
-				player.setRoom(tile.getRoom());
-				break;
-			}
+		Tile tile = getFreeSlot();
+		if (tile != null) {
+			tile.setPlayer(player);
+			player.setXPos(tile.getX());
+			player.setYPos(tile.getY());
+			player.setRoom(tile.getRoom());
 		}
 	}
 
+	/**
+	 * Gets the free slot at the front of the room's free slots
+	 *
+	 * @return the slot, or null if every slot is occupied
+	 */
+	public Tile getFreeSlot() {
+		return freeCount == 0 ? null : slots[0];
+	}
+
+	/**
+	 * Picks a free slot of the room at random
+	 *
+	 * @param random Random numbers to pick with
+	 * @return the slot, or null if every slot is occupied
+	 */
+	public Tile getRandomFreeSlot(Random random) {
+		return freeCount == 0 ? null : slots[random.nextInt(freeCount)];
+	}
+
+	/**
+	 * @return the number of free slots in the room
+	 */
+	public int getFreeSlotCount() {
+		return freeCount;
+	}
+
+	/**
+	 * Adds a free slot to the room
+	 *
+	 * @param tile Floor tile of the room
+	 */
+	void addSlot(Tile tile) {
+		if (slotCount == slots.length) {
+			slots = Arrays.copyOf(slots, Math.max(8, slotCount * 2));
+		}
+		// the first occupied slot moves to the end to make room
+		if (freeCount < slotCount) {
+			slots[slotCount] = slots[freeCount];
+			slotPositions.put(slots[slotCount], slotCount);
+		}
+		slots[freeCount] = tile;
+		slotPositions.put(tile, freeCount);
+		freeCount++;
+		slotCount++;
+	}
+
+	/**
+	 * Marks a tile of the room as free or occupied. Tiles that aren't slots are ignored.
+	 *
+	 * @param tile Tile that changed
+	 * @param free Is the tile now free
+	 */
+	void setSlotFree(Tile tile, boolean free) {
+		Integer position = slotPositions.get(tile);
+		if (position == null || (position < freeCount) == free) return;
+
+		// swap the slot with the first occupied slot, or the last free one, and move the boundary past it
+		int other = free ? freeCount : freeCount - 1;
+		slots[position] = slots[other];
+		slotPositions.put(slots[position], position);
+		slots[other] = tile;
+		slotPositions.put(tile, other);
+		freeCount += free ? 1 : -1;
+	}
+
 	/**
 	 * @return the tiles
 	 */
@@ -120,17 +188,57 @@ public class Room {
 	}
 
 	/**
-	 * @return the connectingRoom
+	 * Gets the room the first passage out of the room leads to, which is the passage the game offers players
+	 *
+	 * @return the connectingRoom, or null if the room has no passages
 	 */
 	public Room getConnectingRoom() {
-		return connectingRoom;
+		return passages.isEmpty() ? null : passages.get(0).getTo();
 	}
 
 	/**
-	 * @param connectingRoom the connectingRoom to se
+	 * Sets the room the first passage out of the room leads to, adding a secret passage if the room has none
+	 *
+	 * @param connectingRoom the connectingRoom to set, or null to remove the first passage
 	 */
 	public void setConnectingRoom(Room connectingRoom) {
-		this.connectingRoom = connectingRoom;
+		if (connectingRoom == null) {
+			if (!passages.isEmpty()) passages.remove(0);
+		} else if (passages.isEmpty()) {
+			passages.add(new Passage(this, connectingRoom, Passage.Kind.SECRET));
+		} else {
+			passages.set(0, new Passage(this, connectingRoom, passages.get(0).getKind()));
+		}
+		passageVersion++;
+	}
+
+	/**
+	 * Adds a passage out of the room. A passage to the same room of the same kind as one the room already has isn't
+	 * added again.
+	 *
+	 * @param to Room the passage leads to
+	 * @param kind Kind of passage
+	 */
+	public void addPassage(Room to, Passage.Kind kind) {
+		for (Passage passage : passages) {
+			if (passage.getTo() == to && passage.getKind() == kind) return;
+		}
+		passages.add(new Passage(this, to, kind));
+		passageVersion++;
+	}
+
+	/**
+	 * @return the passages out of the room
+	 */
+	public List<Passage> getPassages() {
+		return Collections.unmodifiableList(passages);
+	}
+
+	/**
+	 * @return a count of the changes to the room's passages
+	 */
+	public int getPassageVersion() {
+		return passageVersion;
 	}
 
 	/**
@@ -0,0 +1,83 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table of how far apart the rooms on a {@link Board} are. The distance between two rooms is the fewest steps needed
+ * to walk from one into the other, leaving from any door and taking any passages that help, as measured by the
+ * board's {@link RoutePlanner}.
+ *
+ * The table only depends on the layout of the board and its passages, so the board only builds it again when a
+ * passage is added or taken away.
+ *
+ * @author Marcel van Workum
+ */
+public class RoomDistances {
+
+	/**
+	 * Used in the table for rooms that can't be reached
+	 */
+	private static final int UNREACHABLE = Integer.MAX_VALUE / 2;
+
+	private final List<Room> rooms = new ArrayList<>();
+	private final Map<Room, Integer> index = new HashMap<>();
+
+	/**
+	 * Distance from the row room to the column room
+	 */
+	private final int[][] table;
+
+	/**
+	 * Constructor
+	 *
+	 * Fills the table from the board's route planner, which searches out from each room once.
+	 *
+	 * @param board Board to measure
+	 */
+	public RoomDistances(Board board) {
+		rooms.addAll(board.getRooms().values());
+		rooms.sort(Comparator.comparingInt(Room::getRoomNumber));
+		for (int i = 0; i < rooms.size(); i++) {
+			index.put(rooms.get(i), i);
+		}
+
+		RoutePlanner planner = board.getRoutePlanner();
+		int count = rooms.size();
+		table = new int[count][count];
+		for (int from = 0; from < count; from++) {
+			for (int to = 0; to < count; to++) {
+				int steps = planner.stepsBetween(rooms.get(from), rooms.get(to));
+				table[from][to] = steps == -1 ? UNREACHABLE : steps;
+			}
+		}
+	}
+
+	/**
+	 * Gets the fewest steps needed to get from one room to another
+	 *
+	 * @param from Room being left
+	 * @param to Room being walked to
+	 * @return Number of steps, or -1 if the room can't be reached
+	 */
+	public int distance(Room from, Room to) {
+		Integer fromIndex = index.get(from);
+		Integer toIndex = index.get(to);
+		if (fromIndex == null || toIndex == null) {
+			return -1;
+		}
+
+		int distance = table[fromIndex][toIndex];
+		return distance >= UNREACHABLE ? -1 : distance;
+	}
+
+	/**
+	 * @return the rooms in the table, in room number order
+	 */
+	public List<Room> getRooms() {
+		return rooms;
+	}
+}
@@ -0,0 +1,423 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Abstract graph of a {@link Board} used for planning moves several turns ahead. Every {@link Room} is a node, and
+ * the corridors are split into clusters, each of which is a node too. A corridor cluster is a connected patch of
+ * corridor within one square sector of the board.
+ *
+ * Edges are weighted by the walking distance between the nodes' representative tiles. For a room these are its doors,
+ * and for a cluster it is the tile nearest its middle. Passages are edges with no cost. Distances through the
+ * graph are an estimate of the real walking distance, since a route is assumed to pass through each cluster's
+ * representative tile, but a query only has to search a few dozen nodes rather than every tile on the board.
+ *
+ * Walking distances are measured over the same corridors and doors as the board's {@link RoutePlanner}, and a route
+ * that starts in a room is asked of the planner, so routes between rooms agree with it exactly.
+ *
+ * @author Marcel van Workum
+ */
+public class RoomGraph {
+
+	/**
+	 * Width and height of the square sectors the corridors are split into
+	 */
+	public static final int SECTOR_SIZE = 8;
+
+	/**
+	 * Dice that {@link #expectedTurnsToRoom(Player, Room)} assumes, a single six sided die
+	 */
+	private static final Dice STANDARD_DICE = new Dice();
+
+	/**
+	 * A node of the graph, which is either a room or a corridor cluster
+	 */
+	public static class Node {
+
+		private final int id;
+		private final Room room;
+		private final Tile representative;
+		private final List<Node> neighbours = new ArrayList<>();
+		private final List<Integer> weights = new ArrayList<>();
+
+		/**
+		 * Constructor
+		 *
+		 * @param id Index of the node in the graph
+		 * @param room Room the node represents, or null for a corridor cluster
+		 * @param representative Tile distances to a corridor cluster are measured to, or null for a room
+		 */
+		private Node(int id, Room room, Tile representative) {
+			this.id = id;
+			this.room = room;
+			this.representative = representative;
+		}
+
+		/**
+		 * Adds an edge to another node, keeping the cheapest if there is already one
+		 *
+		 * @param to Node the edge leads to
+		 * @param weight Walking distance along the edge
+		 */
+		private void connect(Node to, int weight) {
+			int existing = neighbours.indexOf(to);
+			if (existing == -1) {
+				neighbours.add(to);
+				weights.add(weight);
+			} else if (weight < weights.get(existing)) {
+				weights.set(existing, weight);
+			}
+		}
+
+		/**
+		 * @return the room, or null if this is a corridor cluster
+		 */
+		public Room getRoom() {
+			return room;
+		}
+
+		/**
+		 * @return the representative tile of a corridor cluster, or null for a room
+		 */
+		public Tile getRepresentative() {
+			return representative;
+		}
+
+		/**
+		 * @return the nodes this node has edges to
+		 */
+		public List<Node> getNeighbours() {
+			return neighbours;
+		}
+
+		/**
+		 * @return the weights of the edges, in the same order as {@link #getNeighbours()}
+		 */
+		public List<Integer> getWeights() {
+			return weights;
+		}
+	}
+
+	private final Board board;
+	private final List<Node> nodes = new ArrayList<>();
+	private final Map<Room, Node> roomNodes = new HashMap<>();
+
+	/**
+	 * Cluster node index of each corridor tile, or -1, indexed by y * width + x
+	 */
+	private final int[] clusterOf;
+
+	/**
+	 * Walking distance from each corridor tile to its cluster's representative, indexed by y * width + x
+	 */
+	private final int[] distanceToCluster;
+
+	/**
+	 * Constructor
+	 *
+	 * Derives the graph from the board's tiles, rooms and passages.
+	 *
+	 * @param board Board to build the graph for
+	 */
+	public RoomGraph(Board board) {
+		this.board = board;
+		int cells = board.getWidth() * board.getHeight();
+		clusterOf = new int[cells];
+		distanceToCluster = new int[cells];
+		Arrays.fill(clusterOf, -1);
+
+		for (Room room : board.getRooms().values()) {
+			if (room.getDoors().isEmpty()) continue;
+
+			Node node = new Node(nodes.size(), room, null);
+			nodes.add(node);
+			roomNodes.put(room, node);
+		}
+
+		findClusters();
+		connectClusters();
+		connectRooms();
+	}
+
+	/**
+	 * Splits the corridors into clusters, flood filling each connected patch of corridor within a sector
+	 */
+	private void findClusters() {
+		int width = board.getWidth();
+		Tile[][] tiles = board.getTiles();
+		ArrayDeque<Tile> queue = new ArrayDeque<>();
+		List<Tile> members = new ArrayList<>();
+
+		for (int y = 0; y < board.getHeight(); y++) {
+			for (int x = 0; x < width; x++) {
+				if (!isCorridor(x, y) || clusterOf[y * width + x] != -1) continue;
+
+				int cluster = nodes.size();
+				int sectorX = x / SECTOR_SIZE;
+				int sectorY = y / SECTOR_SIZE;
+				members.clear();
+				clusterOf[y * width + x] = cluster;
+				queue.add(tiles[x][y]);
+
+				while (!queue.isEmpty()) {
+					Tile current = queue.poll();
+					members.add(current);
+					for (Tile next : neighbours(current)) {
+						int cell = next.getY() * width + next.getX();
+						if (clusterOf[cell] == -1 && isCorridor(next.getX(), next.getY())
+								&& next.getX() / SECTOR_SIZE == sectorX && next.getY() / SECTOR_SIZE == sectorY) {
+							clusterOf[cell] = cluster;
+							queue.add(next);
+						}
+					}
+				}
+
+				nodes.add(new Node(cluster, null, middleOf(members)));
+			}
+		}
+	}
+
+	/**
+	 * Connects each cluster to the clusters that border it, and measures how far each corridor tile is from the
+	 * middle of its cluster
+	 */
+	private void connectClusters() {
+		int width = board.getWidth();
+		int[] distances = new int[clusterOf.length];
+
+		for (Node node : nodes) {
+			if (node.room != null) continue;
+
+			board.getRoutePlanner().walkingDistances(node.representative, distances);
+			for (int cell = 0; cell < clusterOf.length; cell++) {
+				if (clusterOf[cell] != node.id) continue;
+
+				// corridor walking distances are the same in both directions
+				distanceToCluster[cell] = distances[cell];
+				for (Tile next : neighbours(board.getTiles()[cell % width][cell / width])) {
+					int other = clusterOf[next.getY() * width + next.getX()];
+					if (other != -1 && other != node.id) {
+						Node neighbour = nodes.get(other);
+						node.connect(neighbour, distances[neighbour.representative.getY() * width
+								+ neighbour.representative.getX()]);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Connects each room to the clusters outside its doors, and to the rooms its passages lead to
+	 */
+	private void connectRooms() {
+		int width = board.getWidth();
+		int[] distances = new int[clusterOf.length];
+
+		for (Node node : roomNodes.values()) {
+			for (Tile door : node.room.getDoors()) {
+				board.getRoutePlanner().walkingDistances(door, distances);
+				for (Tile outside : neighbours(door)) {
+					int cluster = clusterOf[outside.getY() * width + outside.getX()];
+					if (cluster == -1) continue;
+
+					Node clusterNode = nodes.get(cluster);
+					Tile middle = clusterNode.representative;
+					int toCluster = distances[middle.getY() * width + middle.getX()];
+					if (toCluster == -1) continue;
+
+					node.connect(clusterNode, toCluster);
+					clusterNode.connect(node, toCluster);
+				}
+			}
+
+			for (Passage passage : node.room.getPassages()) {
+				if (roomNodes.containsKey(passage.getTo())) {
+					node.connect(roomNodes.get(passage.getTo()), 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Estimates the number of steps a player needs to walk to get into a room, using the graph
+	 *
+	 * @param player Player that is moving
+	 * @param room Room the player wants to get to
+	 * @return Estimated number of steps, or -1 if the room can't be reached
+	 */
+	public int stepsToRoom(Player player, Room room) {
+		Node target = roomNodes.get(room);
+		if (target == null) return -1;
+		if (player.getRoom() == room) return 0;
+		if (player.isInRoom()) return board.getRoutePlanner().stepsBetween(player.getRoom(), room);
+
+		int[] cost = new int[nodes.size()];
+		Arrays.fill(cost, Integer.MAX_VALUE);
+		PriorityQueue<Long> queue = new PriorityQueue<>();
+
+		// players off the corridor (such as on a starting square) join the corridor next to them
+		int width = board.getWidth();
+		Tile tile = board.getTiles()[player.getXPos()][player.getYPos()];
+		List<Tile> entries = new ArrayList<>();
+		entries.add(tile);
+		if (clusterOf[tile.getY() * width + tile.getX()] == -1) entries.addAll(neighbours(tile));
+
+		for (Tile entry : entries) {
+			int cell = entry.getY() * width + entry.getX();
+			if (clusterOf[cell] == -1) continue;
+
+			int entryCost = distanceToCluster[cell] + (entry == tile ? 0 : 1);
+			if (entryCost < cost[clusterOf[cell]]) {
+				cost[clusterOf[cell]] = entryCost;
+				queue.add(((long) entryCost << 32) | clusterOf[cell]);
+			}
+		}
+
+		// dijkstra over the nodes, with each queue entry packing the cost above the node id
+		while (!queue.isEmpty()) {
+			long entry = queue.poll();
+			int id = (int) entry;
+			int nodeCost = (int) (entry >>> 32);
+			if (nodeCost > cost[id]) continue;
+			if (id == target.id) return nodeCost;
+
+			Node node = nodes.get(id);
+			for (int i = 0; i < node.neighbours.size(); i++) {
+				int next = node.neighbours.get(i).id;
+				int nextCost = nodeCost + node.weights.get(i);
+				if (nextCost < cost[next]) {
+					cost[next] = nextCost;
+					queue.add(((long) nextCost << 32) | next);
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Estimates the number of turns a player needs to get into a room with the standard die
+	 *
+	 * @param player Player that is moving
+	 * @param room Room the player wants to get to
+	 * @return Expected number of turns, or infinity if the room can't be reached
+	 */
+	public double expectedTurnsToRoom(Player player, Room room) {
+		return expectedTurnsToRoom(player, room, STANDARD_DICE);
+	}
+
+	/**
+	 * Estimates the number of turns a player needs to get into a room
+	 *
+	 * @param player Player that is moving
+	 * @param room Room the player wants to get to
+	 * @param dice Dice rolled each turn
+	 * @return Expected number of turns, or infinity if the room can't be reached
+	 */
+	public double expectedTurnsToRoom(Player player, Room room, Dice dice) {
+		int steps = stepsToRoom(player, room);
+		if (steps == -1) return Double.POSITIVE_INFINITY;
+
+		return expectedTurns(steps, dice);
+	}
+
+	/**
+	 * Works out the expected number of turns to walk a distance, where each turn the player can walk up to the total
+	 * of the dice
+	 *
+	 * @param steps Distance to walk
+	 * @param dice Dice rolled each turn
+	 * @return Expected number of turns
+	 */
+	public static double expectedTurns(int steps, Dice dice) {
+		double[] turns = new double[steps + 1];
+		for (int distance = 1; distance <= steps; distance++) {
+			double expected = 1;
+			for (int roll = dice.getMin(); roll <= dice.getMax(); roll++) {
+				expected += dice.probability(roll) * turns[Math.max(0, distance - roll)];
+			}
+			turns[distance] = expected;
+		}
+		return turns[steps];
+	}
+
+	/**
+	 * Gets the node for a room
+	 *
+	 * @param room Room to get
+	 * @return the node, or null if the room has no doors
+	 */
+	public Node getNode(Room room) {
+		return roomNodes.get(room);
+	}
+
+	/**
+	 * @return every node in the graph
+	 */
+	public List<Node> getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Checks whether a tile is part of a corridor cluster
+	 *
+	 * @param x x position of the tile
+	 * @param y y position of the tile
+	 * @return Is the tile a corridor tile
+	 */
+	private boolean isCorridor(int x, int y) {
+		Tile tile = board.getTiles()[x][y];
+		return board.isInPlayArea(x, y) && !tile.isRoomTile() && tile.isWalkable();
+	}
+
+	/**
+	 * Gets the tiles next to a tile that can be stepped onto
+	 *
+	 * @param tile Tile to get the neighbours of
+	 * @return neighbouring tiles inside the play area
+	 */
+	private List<Tile> neighbours(Tile tile) {
+		List<Tile> neighbours = new ArrayList<>(4);
+		int x = tile.getX();
+		int y = tile.getY();
+		Tile[][] tiles = board.getTiles();
+		if (board.isInPlayArea(x - 1, y)) neighbours.add(tiles[x - 1][y]);
+		if (board.isInPlayArea(x, y - 1)) neighbours.add(tiles[x][y - 1]);
+		if (board.isInPlayArea(x + 1, y)) neighbours.add(tiles[x + 1][y]);
+		if (board.isInPlayArea(x, y + 1)) neighbours.add(tiles[x][y + 1]);
+		return neighbours;
+	}
+
+	/**
+	 * Finds the tile closest to the middle of a group of tiles
+	 *
+	 * @param members Tiles in the group
+	 * @return the tile nearest the middle
+	 */
+	private static Tile middleOf(List<Tile> members) {
+		double middleX = 0;
+		double middleY = 0;
+		for (Tile tile : members) {
+			middleX += tile.getX();
+			middleY += tile.getY();
+		}
+		middleX /= members.size();
+		middleY /= members.size();
+
+		Tile middle = members.get(0);
+		double best = Double.MAX_VALUE;
+		for (Tile tile : members) {
+			double distance = Math.abs(tile.getX() - middleX) + Math.abs(tile.getY() - middleY);
+			if (distance < best) {
+				best = distance;
+				middle = tile;
+			}
+		}
+		return middle;
+	}
+}
@@ -0,0 +1,275 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Answers how many steps a player needs to walk to get into a room, over the corridors and every passage between
+ * rooms.
+ *
+ * The corridors, doors and rooms make up one graph. Stepping from a tile to the next costs one, a player on a door is
+ * in its room and a player in a room can leave from any of its doors, and taking a passage costs nothing. Dijkstra is
+ * run backwards from a room over this graph, which gives the distance to that room from every tile and every other
+ * room at once, and the result is cached. Players and weapons don't block routes, so the cache only needs throwing
+ * away when the passages change.
+ *
+ * This is the one graph that routes between rooms are measured on. The board's {@link RoomDistances} are read from it,
+ * and its {@link RoomGraph} measures its edges with {@link #walkingDistances(Tile, int[])} and asks it for routes
+ * that start in a room, so all three give the same answers.
+ *
+ * @author Marcel van Workum
+ */
+public class RoutePlanner {
+
+	/**
+	 * x and y offsets of the four tiles next to a tile
+	 */
+	private static final int[] STEP_X = { -1, 0, 1, 0 };
+	private static final int[] STEP_Y = { 0, -1, 0, 1 };
+
+	/**
+	 * Game board that the routes are planned on
+	 */
+	private final Board board;
+
+	/**
+	 * 2D Array of tiles uses to represent the board
+	 */
+	private final Tile[][] tiles;
+
+	/**
+	 * Rooms of the board, each of which is the node after the tiles at its index
+	 */
+	private final List<Room> rooms;
+	private final Map<Room, Integer> roomNodes = new HashMap<>();
+
+	/**
+	 * Distance to each room from every node, valid while the passages are at cacheVersion
+	 */
+	private final Map<Room, int[]> cache = new HashMap<>();
+	private int cacheVersion = -1;
+
+	/**
+	 * Constructor
+	 *
+	 * @param board Board the routes are planned on
+	 */
+	public RoutePlanner(Board board) {
+		this.board = board;
+		this.tiles = board.getTiles();
+		this.rooms = new ArrayList<>(board.getRooms().values());
+		int cells = board.getWidth() * board.getHeight();
+		for (int i = 0; i < rooms.size(); i++) {
+			roomNodes.put(rooms.get(i), cells + i);
+		}
+	}
+
+	/**
+	 * Gets the fewest steps a player needs to walk to get into a room
+	 *
+	 * @param player Player that is moving
+	 * @param room Room the player wants to get to
+	 * @return Number of steps, or -1 if the room can't be reached
+	 */
+	public int stepsToRoom(Player player, Room room) {
+		if (player.isInRoom()) {
+			return stepsBetween(player.getRoom(), room);
+		}
+		return stepsToRoom(tiles[player.getXPos()][player.getYPos()], room);
+	}
+
+	/**
+	 * Gets the fewest steps needed to walk from a tile into a room. A tile off the corridors, such as a starting
+	 * square, joins them at the tile next to it.
+	 *
+	 * @param from Tile the walk starts on
+	 * @param room Room being walked to
+	 * @return Number of steps, or -1 if the room can't be reached
+	 */
+	public int stepsToRoom(Tile from, Room room) {
+		int[] distances = distancesTo(room);
+		if (distances == null) return -1;
+
+		int x = from.getX();
+		int y = from.getY();
+		int width = board.getWidth();
+		if (isStep(x, y)) {
+			return toSteps(distances[y * width + x]);
+		}
+
+		int best = Integer.MAX_VALUE;
+		for (int i = 0; i < 4; i++) {
+			int nextX = x + STEP_X[i];
+			int nextY = y + STEP_Y[i];
+			if (isStep(nextX, nextY) && distances[nextY * width + nextX] != Integer.MAX_VALUE) {
+				best = Math.min(best, distances[nextY * width + nextX] + 1);
+			}
+		}
+		return toSteps(best);
+	}
+
+	/**
+	 * Gets the fewest steps needed to get from one room to another, taking passages where they help
+	 *
+	 * @param from Room being left
+	 * @param to Room being walked to
+	 * @return Number of steps, or -1 if the room can't be reached
+	 */
+	public int stepsBetween(Room from, Room to) {
+		int[] distances = distancesTo(to);
+		Integer node = roomNodes.get(from);
+		return distances == null || node == null ? -1 : toSteps(distances[node]);
+	}
+
+	/**
+	 * Works out the walking distance from one tile to every other tile over the corridors and doors, with a breadth
+	 * first search that doesn't go into rooms
+	 *
+	 * @param from Tile the walk starts on
+	 * @param distances Array of width * height ints to fill with the distance to each tile, indexed by
+	 *            y * width + x, or -1 where there is no path
+	 */
+	public void walkingDistances(Tile from, int[] distances) {
+		Arrays.fill(distances, -1);
+		if (!isStep(from.getX(), from.getY())) return;
+
+		int width = board.getWidth();
+		int[] queue = new int[distances.length];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = from.getY() * width + from.getX();
+		distances[queue[0]] = 0;
+		while (head < tail) {
+			int current = queue[head++];
+			int x = current % width;
+			int y = current / width;
+			for (int i = 0; i < 4; i++) {
+				int nextX = x + STEP_X[i];
+				int nextY = y + STEP_Y[i];
+				int next = nextY * width + nextX;
+				if (isStep(nextX, nextY) && distances[next] == -1) {
+					distances[next] = distances[current] + 1;
+					queue[tail++] = next;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the distance to a room from every node, from the cache if the passages haven't changed
+	 *
+	 * @param room Room to measure to
+	 * @return distance from each node, or null if the room isn't on the board
+	 */
+	private int[] distancesTo(Room room) {
+		if (!roomNodes.containsKey(room)) return null;
+
+		int version = board.getPassageVersion();
+		if (version != cacheVersion) {
+			cache.clear();
+			cacheVersion = version;
+		}
+		return cache.computeIfAbsent(room, this::buildDistances);
+	}
+
+	/**
+	 * Runs Dijkstra backwards from a room, following passages against their direction
+	 *
+	 * @param target Room to measure to
+	 * @return distance to the room from each node, or Integer.MAX_VALUE where it can't be reached
+	 */
+	private int[] buildDistances(Room target) {
+		int width = board.getWidth();
+		int cells = width * board.getHeight();
+
+		// the rooms that have a passage into each room
+		Map<Room, List<Room>> passagesInto = new HashMap<>();
+		for (Room room : rooms) {
+			for (Passage passage : room.getPassages()) {
+				passagesInto.computeIfAbsent(passage.getTo(), key -> new ArrayList<>()).add(room);
+			}
+		}
+
+		int[] distances = new int[cells + rooms.size()];
+		Arrays.fill(distances, Integer.MAX_VALUE);
+		PriorityQueue<Long> queue = new PriorityQueue<>();
+		int targetNode = roomNodes.get(target);
+		distances[targetNode] = 0;
+		queue.add((long) targetNode);
+
+		// each queue entry packs the distance above the node
+		while (!queue.isEmpty()) {
+			long entry = queue.poll();
+			int node = (int) entry;
+			int distance = (int) (entry >>> 32);
+			if (distance > distances[node]) continue;
+
+			if (node >= cells) {
+				Room room = rooms.get(node - cells);
+				for (Tile door : room.getDoors()) {
+					relax(distances, queue, door.getY() * width + door.getX(), distance);
+				}
+				for (Room from : passagesInto.getOrDefault(room, Collections.emptyList())) {
+					relax(distances, queue, roomNodes.get(from), distance);
+				}
+				continue;
+			}
+
+			int x = node % width;
+			int y = node / width;
+			Tile tile = tiles[x][y];
+			if (tile.isDoor() && roomNodes.containsKey(tile.getRoom())) {
+				relax(distances, queue, roomNodes.get(tile.getRoom()), distance);
+			}
+			for (int i = 0; i < 4; i++) {
+				int nextX = x + STEP_X[i];
+				int nextY = y + STEP_Y[i];
+				if (isStep(nextX, nextY)) {
+					relax(distances, queue, nextY * width + nextX, distance + 1);
+				}
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * Shortens the distance to a node if a shorter one has been found, and queues the node
+	 *
+	 * @param distances Distance to each node so far
+	 * @param queue Nodes waiting to be visited
+	 * @param node Node reached
+	 * @param distance Distance the node was reached with
+	 */
+	private static void relax(int[] distances, PriorityQueue<Long> queue, int node, int distance) {
+		if (distance < distances[node]) {
+			distances[node] = distance;
+			queue.add(((long) distance << 32) | node);
+		}
+	}
+
+	/**
+	 * Checks whether a tile is one that routes step along, which is a corridor or a door inside the play area
+	 *
+	 * @param x x position of the tile
+	 * @param y y position of the tile
+	 * @return Can routes step onto the tile
+	 */
+	private boolean isStep(int x, int y) {
+		if (!board.isInPlayArea(x, y)) return false;
+		Tile tile = tiles[x][y];
+		return tile.isWalkable() && (!tile.isRoomTile() || tile.isDoor());
+	}
+
+	/**
+	 * @param distance Distance from the table
+	 * @return the number of steps, or -1 for an unreachable distance
+	 */
+	private static int toSteps(int distance) {
+		return distance == Integer.MAX_VALUE ? -1 : distance;
+	}
+}
@@ -0,0 +1,455 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Estimates how likely each card is to be in the solution, as far as one player can tell from their {@link Notebook}.
+ *
+ * The estimator deals out the cards nobody is known to have over and over at random, each time keeping to everything
+ * in the notebook, and counts how often each card ends up in the solution. Unknown solution cards are picked first, one
+ * of each type, and then the rest are dealt one by one to an owner that could have them. Dealing this way makes some
+ * deals more likely than others, so each deal is weighted by how many places its cards could have gone, which makes
+ * every deal that fits the notebook count the same. Deals that break a refutation are thrown away.
+ *
+ * Deals are made in rounds on a {@link ForkJoinPool}, each task with its own {@link SplittableRandom} split off the
+ * one before it, so the same seed gives the same estimate however the tasks are scheduled. Sampling stops once every
+ * probability is known to within the tolerance, after the most samples allowed, or when the time budget runs out. The
+ * tasks watch the clock themselves, so a round that is cut short still counts the deals it made.
+ *
+ * @author Marcel van Workum
+ */
+public class SolutionEstimator {
+
+	/**
+	 * Number of standard errors either side of an estimate that its confidence interval covers, which is 95%
+	 */
+	private static final double Z = 1.96;
+
+	/**
+	 * Number of deals each task makes before it stops splitting
+	 */
+	private static final int BATCH = 512;
+
+	/**
+	 * Number of deals that have to fit the notebook before the estimate can be said to have converged
+	 */
+	private static final int MIN_ACCEPTED = 200;
+
+	/**
+	 * Cards of each type, the solution having one of each
+	 */
+	private static final int[] TYPES = { CardId.CHARACTERS, CardId.WEAPONS, CardId.ROOMS };
+
+	private final ForkJoinPool pool;
+	private final double tolerance;
+	private final int maxSamples;
+
+	/**
+	 * Constructor, which samples on the common pool until every probability is known to within one percentage point
+	 */
+	public SolutionEstimator() {
+		this(ForkJoinPool.commonPool(), 0.01, 200000);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param pool Pool the deals are made on
+	 * @param tolerance Half width of the confidence interval every probability has to be within before sampling stops
+	 * @param maxSamples Most deals to make
+	 */
+	public SolutionEstimator(ForkJoinPool pool, double tolerance, int maxSamples) {
+		this.pool = pool;
+		this.tolerance = tolerance;
+		this.maxSamples = maxSamples;
+	}
+
+	/**
+	 * Estimates the solution from a notebook, with no time limit
+	 *
+	 * @param notebook What the player knows
+	 * @return the estimate
+	 */
+	public Estimate estimate(Notebook notebook) {
+		return estimate(notebook, new SplittableRandom(), Long.MAX_VALUE);
+	}
+
+	/**
+	 * Estimates the solution from a notebook
+	 *
+	 * @param notebook What the player knows
+	 * @param random Where the deals come from
+	 * @param budgetNanos Time after which sampling stops, in nanoseconds
+	 * @return the estimate
+	 */
+	public Estimate estimate(Notebook notebook, SplittableRandom random, long budgetNanos) {
+		long start = System.nanoTime();
+		Dealer dealer = new Dealer(notebook);
+
+		// each round keeps every worker busy with a few batches
+		int round = BATCH * Math.max(1, pool.getParallelism()) * 4;
+		int cards = CardId.values().length;
+		double[] totals = new double[cards + 4];
+		boolean converged = dealer.unknown == 0;
+		while (!converged && totals[cards + 3] < maxSamples && System.nanoTime() - start < budgetNanos) {
+			int size = Math.min(round, maxSamples - (int) totals[cards + 3]);
+			double[] sums = pool.invoke(new Sampling(dealer, random.split(), size, start, budgetNanos));
+			for (int i = 0; i < totals.length; i++) {
+				totals[i] += sums[i];
+			}
+			converged = hasConverged(totals, dealer.unknown);
+		}
+		int samples = (int) totals[cards + 3];
+		return new Estimate(dealer, totals, samples, converged);
+	}
+
+	/**
+	 * Checks whether the confidence interval of every card that could be in the solution is within the tolerance
+	 *
+	 * @param totals Weighted counts of each card, then the total weight, the total squared weight, the number of
+	 *            deals kept and the number of deals made
+	 * @param unknown Bits of the cards that might be in the solution but aren't known to be
+	 * @return has the estimate converged
+	 */
+	private boolean hasConverged(double[] totals, int unknown) {
+		int cards = CardId.values().length;
+		if (totals[cards + 2] < MIN_ACCEPTED) return false;
+
+		double effective = totals[cards] * totals[cards] / totals[cards + 1];
+		for (CardId id : CardId.values()) {
+			if ((unknown & id.bit()) != 0) {
+				double p = totals[id.ordinal()] / totals[cards];
+				if (Z * Math.sqrt(p * (1 - p) / effective) > tolerance) return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * How likely each card is to be in the solution
+	 */
+	public static class Estimate {
+
+		private final double[] probabilities = new double[CardId.values().length];
+		private final double[] errors = new double[CardId.values().length];
+		private final int samples;
+		private final boolean converged;
+
+		/**
+		 * Constructor
+		 *
+		 * @param dealer Dealer the deals were made with
+		 * @param totals Weighted counts of each card, then the total weight, the total squared weight, the number of
+		 *            deals kept and the number of deals made
+		 * @param samples Number of deals made
+		 * @param converged Did the estimate converge
+		 */
+		private Estimate(Dealer dealer, double[] totals, int samples, boolean converged) {
+			this.samples = samples;
+			this.converged = converged;
+
+			int cards = probabilities.length;
+			double effective = totals[cards + 1] > 0 ? totals[cards] * totals[cards] / totals[cards + 1] : 0;
+			for (CardId id : CardId.values()) {
+				int bit = id.bit();
+				if ((dealer.known & bit) != 0) {
+					probabilities[id.ordinal()] = 1;
+				} else if ((dealer.unknown & bit) == 0) {
+					probabilities[id.ordinal()] = 0;
+				} else if (effective > 0) {
+					double p = totals[id.ordinal()] / totals[cards];
+					probabilities[id.ordinal()] = p;
+					errors[id.ordinal()] = Z * Math.sqrt(p * (1 - p) / effective);
+				} else {
+					// no deal fitted, so all that is known is which cards it could be
+					probabilities[id.ordinal()] = 1.0 / Integer.bitCount(dealer.unknown & typeOf(bit));
+					errors[id.ordinal()] = 1;
+				}
+			}
+		}
+
+		/**
+		 * @param card Card to look up
+		 * @return how likely the card is to be in the solution
+		 */
+		public double getProbability(CardId card) {
+			return probabilities[card.ordinal()];
+		}
+
+		/**
+		 * @param card Card to look up
+		 * @return half the width of the 95% confidence interval of the card's probability
+		 */
+		public double getError(CardId card) {
+			return errors[card.ordinal()];
+		}
+
+		/**
+		 * Gets the card of a type most likely to be in the solution
+		 *
+		 * @param type Bits of the cards of the type, such as {@link CardId#WEAPONS}
+		 * @return the card
+		 */
+		public CardId getMostLikely(int type) {
+			CardId best = null;
+			for (CardId id : CardId.values()) {
+				if ((type & id.bit()) == 0) continue;
+				if (best == null || probabilities[id.ordinal()] > probabilities[best.ordinal()]) {
+					best = id;
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * @return the number of deals made
+		 */
+		public int getSamples() {
+			return samples;
+		}
+
+		/**
+		 * @return is every probability within the tolerance
+		 */
+		public boolean hasConverged() {
+			return converged;
+		}
+	}
+
+	/**
+	 * Gets the bits of every card of the same type as a card
+	 *
+	 * @param bit Bit of the card
+	 * @return the bits of its type
+	 */
+	private static int typeOf(int bit) {
+		for (int type : TYPES) {
+			if ((type & bit) != 0) return type;
+		}
+		return 0;
+	}
+
+	/**
+	 * What the deals need from a notebook, copied out so that the tasks can share it
+	 */
+	private static class Dealer {
+
+		/**
+		 * Cards known to be in the solution, and cards that might be in it but aren't known to be
+		 */
+		private final int known;
+		private final int unknown;
+
+		/**
+		 * Unknown cards of each type that still need picking for the solution
+		 */
+		private final int[] candidates;
+
+		/**
+		 * Cards and number of free places of each owner apart from the solution
+		 */
+		private final int[] hands;
+		private final int[] free;
+
+		/**
+		 * Cards nobody is known to have, most constrained first, with the owners that could have each one as bits
+		 */
+		private final int[] order;
+		private final int[] owners;
+
+		/**
+		 * Refutations that aren't settled, as an owner and the cards they have one of
+		 */
+		private final int[] refuters;
+		private final int[] refuted;
+
+		/**
+		 * Constructor
+		 *
+		 * @param notebook Notebook to copy
+		 */
+		private Dealer(Notebook notebook) {
+			int solution = notebook.getOwnerCount() - 1;
+			known = notebook.hasOf(solution);
+			unknown = notebook.getPossibleSolution() & ~known;
+
+			List<Integer> types = new ArrayList<>();
+			for (int type : TYPES) {
+				if ((known & type) != 0) continue;
+				if ((unknown & type) == 0) {
+					throw new IllegalStateException("No card of a type can be in the solution");
+				}
+				types.add(unknown & type);
+			}
+			candidates = types.stream().mapToInt(Integer::intValue).toArray();
+
+			hands = new int[solution];
+			free = new int[solution];
+			int dealt = known;
+			for (int owner = 0; owner < solution; owner++) {
+				hands[owner] = notebook.hasOf(owner);
+				free[owner] = notebook.sizeOf(owner) - Integer.bitCount(hands[owner]);
+				dealt |= hands[owner];
+			}
+
+			List<CardId> cards = new ArrayList<>();
+			int[] ownersOf = new int[CardId.values().length];
+			for (CardId id : CardId.values()) {
+				if ((dealt & id.bit()) != 0) continue;
+				cards.add(id);
+				for (int owner = 0; owner < solution; owner++) {
+					if ((notebook.hasNotOf(owner) & id.bit()) == 0) {
+						ownersOf[id.ordinal()] |= 1 << owner;
+					}
+				}
+			}
+			cards.sort((a, b) -> Integer.bitCount(ownersOf[a.ordinal()]) - Integer.bitCount(ownersOf[b.ordinal()]));
+			order = new int[cards.size()];
+			owners = new int[cards.size()];
+			for (int i = 0; i < order.length; i++) {
+				order[i] = cards.get(i).bit();
+				owners[i] = ownersOf[cards.get(i).ordinal()];
+			}
+
+			int[][] refutations = notebook.getRefutations();
+			refuters = refutations[0];
+			refuted = refutations[1];
+		}
+
+		/**
+		 * Makes one deal
+		 *
+		 * @param random Where the deal comes from
+		 * @param hands Scratch space for the hand of each owner
+		 * @param free Scratch space for the free places of each owner
+		 * @param solution Where the bits of the cards in the solution are put
+		 * @return the weight of the deal, or 0 if it doesn't fit the notebook
+		 */
+		private double deal(SplittableRandom random, int[] hands, int[] free, int[] solution) {
+			int picked = known;
+			for (int type : candidates) {
+				int bits = type;
+				for (int skip = random.nextInt(Integer.bitCount(type)); skip > 0; skip--) {
+					bits &= bits - 1;
+				}
+				picked |= bits & -bits;
+			}
+			solution[0] = picked;
+
+			System.arraycopy(this.hands, 0, hands, 0, hands.length);
+			System.arraycopy(this.free, 0, free, 0, free.length);
+			double weight = 1;
+			for (int i = 0; i < order.length; i++) {
+				if ((picked & order[i]) != 0) continue;
+
+				// pick one of the free places of the owners that could have the card
+				int places = 0;
+				for (int bits = owners[i]; bits != 0; bits &= bits - 1) {
+					places += free[Integer.numberOfTrailingZeros(bits)];
+				}
+				if (places == 0) return 0;
+
+				int place = random.nextInt(places);
+				for (int bits = owners[i]; bits != 0; bits &= bits - 1) {
+					int owner = Integer.numberOfTrailingZeros(bits);
+					place -= free[owner];
+					if (place < 0) {
+						hands[owner] |= order[i];
+						free[owner]--;
+						break;
+					}
+				}
+				weight *= places;
+			}
+
+			for (int i = 0; i < refuters.length; i++) {
+				if ((hands[refuters[i]] & refuted[i]) == 0) return 0;
+			}
+			return weight;
+		}
+	}
+
+	/**
+	 * Makes a number of deals, splitting them between tasks, and adds up how often each card is in the solution. Each
+	 * task stops early if the time budget runs out.
+	 */
+	private static class Sampling extends RecursiveTask<double[]> {
+
+		/**
+		 * Randomly generated UID
+		 */
+		private static final long serialVersionUID = 4617928386207352193L;
+
+		/**
+		 * Number of deals made between looks at the clock
+		 */
+		private static final int CLOCK_INTERVAL = 64;
+
+		private final Dealer dealer;
+		private final SplittableRandom random;
+		private final int samples;
+
+		/**
+		 * Time sampling started, and how long it may take, in nanoseconds
+		 */
+		private final long start;
+		private final long budgetNanos;
+
+		/**
+		 * Constructor
+		 *
+		 * @param dealer Dealer to make the deals with
+		 * @param random Where the deals come from, which belongs to this task alone
+		 * @param samples Number of deals to make
+		 * @param start Time sampling started, from {@link System#nanoTime()}
+		 * @param budgetNanos Time after the start at which the task stops dealing, in nanoseconds
+		 */
+		private Sampling(Dealer dealer, SplittableRandom random, int samples, long start, long budgetNanos) {
+			this.dealer = dealer;
+			this.random = random;
+			this.samples = samples;
+			this.start = start;
+			this.budgetNanos = budgetNanos;
+		}
+
+		@Override
+		protected double[] compute() {
+			if (samples > BATCH) {
+				// split the random before handing half the deals to another task
+				Sampling other = new Sampling(dealer, random.split(), samples / 2, start, budgetNanos);
+				other.fork();
+				double[] sums = new Sampling(dealer, random, samples - samples / 2, start, budgetNanos).compute();
+				double[] others = other.join();
+				for (int i = 0; i < sums.length; i++) {
+					sums[i] += others[i];
+				}
+				return sums;
+			}
+
+			int cards = CardId.values().length;
+			double[] sums = new double[cards + 4];
+			int[] hands = new int[dealer.hands.length];
+			int[] free = new int[dealer.free.length];
+			int[] solution = new int[1];
+			for (int i = 0; i < samples; i++) {
+				if (i % CLOCK_INTERVAL == 0 && System.nanoTime() - start >= budgetNanos) break;
+
+				sums[cards + 3]++;
+				double weight = dealer.deal(random, hands, free, solution);
+				if (weight == 0) continue;
+
+				for (int bits = solution[0] & dealer.unknown; bits != 0; bits &= bits - 1) {
+					sums[Integer.numberOfTrailingZeros(bits)] += weight;
+				}
+				sums[cards] += weight;
+				sums[cards + 1] += weight * weight;
+				sums[cards + 2]++;
+			}
+			return sums;
+		}
+	}
+}
@@ -49,4 +49,13 @@ public class Suggestion {
 		return room;
 	}
 
+	/**
+	 * Gets the bits of the cards in the suggestion, so that a hand can be checked against all three at once
+	 *
+	 * @return the bits of the character, weapon and room cards
+	 */
+	public int getCardMask() {
+		return CardId.bitOf(player.getName()) | CardId.bitOf(weapon.getName()) | CardId.bitOf(room.getName());
+	}
+
 }
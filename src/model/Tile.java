@@ -1,65 +1,40 @@
 package model;
 
 /**
- * Class to represent a tile on the board. A Tile is parsed by the {@link Board#parseBoard(String)} method
+ * Class to represent a tile on the board. A Tile is created by the {@link Board} when it reads its board file
  *
- * A tile can have a number of properties including if it is a room or wall tile, or if it is a door to a room.
+ * A tile can have a number of properties including if it is a room or wall tile, or if it is a door to a room. These
+ * never change, and are held by a {@link TileType} shared with every other tile like it.
  *
- * It can also have a {@link Player} or {@link Weapon} associated with it.
+ * It can also have a {@link Player} or {@link Weapon} associated with it. These are kept by the board's
+ * {@link LocationIndex} rather than the tile, so the tile itself is only a position on the board.
  *
  * @author Marcel
  * @author Reuben
  */
 public class Tile {
 
-	private char name;
-	private Room room;
-	private boolean isWallTile;
-	private boolean isDoor;
-	private int x, y;
-	private Player player;
-	private Weapon weapon;
-
 	/**
-	 * Protected so that is accessible from the {@link BoundaryTile}
+	 * Board the tile is on, which keeps track of what is on the tile
 	 */
-	protected boolean isBoundary;
+	private final Board board;
 
-	/**
-	 * Constructor
-	 *
-	 * @param x x position of the tile
-	 * @param y y position of the tile
-	 * @param room The room the tile is associated with
-	 * @param isWallTile Is the tile a wall
-	 * @param name The name of the tile?
-	 */
-	public Tile(int x, int y, Room room, boolean isWallTile, char name) {
-		this.x = x;
-		this.y = y;
-		this.room = room;
-		this.isWallTile = isWallTile;
-		this.name = name;
-		this.isBoundary = false;
-	}
+	private final int x, y;
+	private TileType type;
 
 	/**
-	 * Alternate constructor
+	 * Constructor
 	 *
+	 * @param board Board the tile is on
 	 * @param x x position of the tile
 	 * @param y y position of the tile
-	 * @param room The room the tile is associated with
-	 * @param isWallTile Is the tile a wall
-	 * @param isDoor Is the tile a door
-	 * @param name The name of the tile?
+	 * @param type Type of the tile
 	 */
-	public Tile(int x, int y, Room room, boolean isWallTile, boolean isDoor, char name) {
+	public Tile(Board board, int x, int y, TileType type) {
+		this.board = board;
 		this.x = x;
 		this.y = y;
-		this.room = room;
-		this.isDoor = isDoor;
-		this.isWallTile = isWallTile;
-		this.name = name;
+		this.type = type;
 	}
 
 	/**
@@ -86,7 +61,7 @@ public class Tile {
 	 * @return the name
      */
 	public char getName() {
-		return name;
+		return type.getName();
 	}
 
 	/**
@@ -95,21 +70,28 @@ public class Tile {
 	 * @param name the name
      */
 	public void setName(char name) {
-		this.name = name;
+		this.type = type.withName(name);
+	}
+
+	/**
+	 * @return the type of the tile
+	 */
+	public TileType getType() {
+		return type;
 	}
 
 	/**
 	 * @return the Room
 	 */
 	public Room getRoom() {
-		return room;
+		return board.roomOf(type.getRoomNumber());
 	}
 
 	/**
 	 * @return the player
 	 */
 	public Player getPlayer() {
-		return player;
+		return board.getLocations().getPlayer(this);
 	}
 
 	/**
@@ -118,7 +100,7 @@ public class Tile {
 	 * @return Is there a player currently on this tile
 	 */
 	public boolean isOccupied() {
-		return player != null || weapon != null;
+		return board.getLocations().isOccupied(this);
 	}
 
 	/**
@@ -126,14 +108,14 @@ public class Tile {
 	 *            the player to set
 	 */
 	public void setPlayer(Player player) {
-		this.player = player;
+		board.getLocations().setPlayer(this, player);
 	}
 
 	/**
 	 * @return the isWallTile
 	 */
 	public boolean isWallTile() {
-		return isWallTile;
+		return type.getKind() == BoardLegend.Kind.WALL;
 	}
 
 	/**
@@ -142,21 +124,30 @@ public class Tile {
 	 * @return the boolean
      */
 	public boolean isRoomTile() {
-		return room != null;
+		return type.getRoomNumber() != 0;
+	}
+
+	/**
+	 * Room walls can't be pathed through, every other tile can
+	 *
+	 * @return Can a player path through this tile
+	 */
+	public boolean isWalkable() {
+		return !(isRoomTile() && isWallTile());
 	}
 
 	/**
 	 * @return the isDoor
 	 */
 	public boolean isDoor() {
-		return isDoor;
+		return type.getKind() == BoardLegend.Kind.DOOR;
 	}
 
 	/**
 	 * @return the weapon
 	 */
 	public Weapon getWeapon() {
-		return weapon;
+		return board.getLocations().getWeapon(this);
 	}
 
 	/**
@@ -164,15 +155,13 @@ public class Tile {
 	 *            the weapon to set
 	 */
 	public void setWeapon(Weapon weapon) {
-		this.weapon = weapon;
+		board.getLocations().setWeapon(this, weapon);
 	}
 
 	/**
 	 * @return the isBoundary
 	 */
 	public boolean isBoundary() {
-		return isBoundary;
+		return type.getKind() == BoardLegend.Kind.BOUNDARY;
 	}
-
-
 }
@@ -0,0 +1,130 @@
+package model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The parts of a tile that never change during a game: its kind, the number of its room and the character it is drawn
+ * with. Types are flyweights interned for the whole process, so every tile of the same kind in the same room shares
+ * one type, on every board, and a {@link Tile} only adds its position. The room is known by its number because each
+ * game has its own rooms, which the tile looks up on its board. What is on a tile is kept by the board's
+ * {@link LocationIndex}.
+ *
+ * The board works out a type for each character of its legend before reading the file, so placing a tile never needs
+ * to look anything up by name.
+ *
+ * @author Marcel van Workum
+ */
+public class TileType {
+
+	/**
+	 * Every type made so far, keyed by its kind, room number and name
+	 */
+	private static final Map<Long, TileType> TYPES = new ConcurrentHashMap<>();
+
+	/**
+	 * Type of any character that isn't in the legend
+	 */
+	public static final TileType CORRIDOR = of(BoardLegend.Kind.CORRIDOR, 0, ' ');
+
+	private final BoardLegend.Kind kind;
+	private final int roomNumber;
+	private final char name;
+
+	/**
+	 * Constructor
+	 *
+	 * @param kind Kind of tile
+	 * @param roomNumber Number of the room the tile belongs to, or 0 for boundaries and corridors
+	 * @param name Character the tile is drawn with
+	 */
+	private TileType(BoardLegend.Kind kind, int roomNumber, char name) {
+		this.kind = kind;
+		this.roomNumber = roomNumber;
+		this.name = name;
+	}
+
+	/**
+	 * Gets the type of a kind of tile, making it the first time it is asked for
+	 *
+	 * @param kind Kind of tile
+	 * @param roomNumber Number of the room the tile belongs to, or 0 for boundaries and corridors
+	 * @param name Character the tile is drawn with
+	 * @return the type
+	 */
+	public static TileType of(BoardLegend.Kind kind, int roomNumber, char name) {
+		long key = (long) kind.ordinal() << 48 | (roomNumber & 0xffffffffL) << 16 | name;
+		return TYPES.computeIfAbsent(key, k -> new TileType(kind, roomNumber, name));
+	}
+
+	/**
+	 * Gets the character a kind of tile is drawn with. Walls are drawn with their legend character instead.
+	 *
+	 * @param kind Kind of tile
+	 * @return the character
+	 */
+	public static char defaultName(BoardLegend.Kind kind) {
+		switch (kind) {
+			case BOUNDARY:
+				return '0';
+			case FLOOR:
+			case DOOR:
+				return '.';
+			default:
+				return ' ';
+		}
+	}
+
+	/**
+	 * Creates a tile of this type, adding it to its room, and to the room's slots if it is floor
+	 *
+	 * @param board Board the tile is on
+	 * @param x x position of the tile
+	 * @param y y position of the tile
+	 * @return the tile
+	 */
+	public Tile createTile(Board board, int x, int y) {
+		Tile tile = kind == BoardLegend.Kind.BOUNDARY ? new BoundaryTile(board, x, y, this) : new Tile(board, x, y, this);
+		Room room = board.roomOf(roomNumber);
+		if (room != null) {
+			room.getTiles().add(tile);
+			if (kind == BoardLegend.Kind.DOOR) {
+				room.getDoors().add(tile);
+			} else if (kind == BoardLegend.Kind.FLOOR) {
+				room.addSlot(tile);
+			}
+		}
+		return tile;
+	}
+
+	/**
+	 * Gets a type that is the same as this one but drawn with a different character
+	 *
+	 * @param name Character to draw with
+	 * @return the type
+	 */
+	TileType withName(char name) {
+		return of(kind, roomNumber, name);
+	}
+
+	/**
+	 * @return the kind of tile
+	 */
+	public BoardLegend.Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return the number of the room the tile belongs to, or 0
+	 */
+	public int getRoomNumber() {
+		return roomNumber;
+	}
+
+	/**
+	 * @return the character the tile is drawn with
+	 */
+	public char getName() {
+		return name;
+	}
+}
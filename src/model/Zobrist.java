@@ -0,0 +1,72 @@
+package model;
+
+/**
+ * Random 64 bit keys for Zobrist hashing the state of a game. The hash of a state is the exclusive or of the keys of
+ * everything in it: each player and weapon on its tile, whose turn it is and each player still in the game. Moving a
+ * token or changing the turn then only takes an exclusive or or two to keep the hash up to date.
+ *
+ * Keys are worked out by mixing their inputs rather than kept in tables, so they are the same on every board and in
+ * every run, and states of different games on the same board can be compared by hash.
+ *
+ * @author Marcel van Workum
+ */
+public final class Zobrist {
+
+	private static final long PLAYER = 1L << 60;
+	private static final long WEAPON = 2L << 60;
+	private static final long TURN = 3L << 60;
+	private static final long ALIVE = 4L << 60;
+
+	/**
+	 * Not to be created
+	 */
+	private Zobrist() {
+	}
+
+	/**
+	 * @param number Number of the player
+	 * @param tile Index of the tile the player is on
+	 * @return the key of a player being on a tile
+	 */
+	public static long player(int number, int tile) {
+		return mix(PLAYER | ((long) number << 32) | tile);
+	}
+
+	/**
+	 * @param number Number of the weapon
+	 * @param tile Index of the tile the weapon is on
+	 * @return the key of a weapon being on a tile
+	 */
+	public static long weapon(int number, int tile) {
+		return mix(WEAPON | ((long) number << 32) | tile);
+	}
+
+	/**
+	 * @param turn Whose turn it is
+	 * @return the key of the turn
+	 */
+	public static long turn(int turn) {
+		return mix(TURN | turn);
+	}
+
+	/**
+	 * @param number Number of the player
+	 * @return the key of a player still being in the game
+	 */
+	public static long alive(int number) {
+		return mix(ALIVE | number);
+	}
+
+	/**
+	 * Scrambles a value into a key with the SplitMix64 finaliser
+	 *
+	 * @param value Value to scramble
+	 * @return the key
+	 */
+	private static long mix(long value) {
+		long z = value + 0x9e3779b97f4a7c15L;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,63 @@
+package tests;
+
+import model.*;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test suite for sharing board layouts between games
+ *
+ * @see model.BoardCache
+ *
+ * @author Marcel van Workum
+ */
+public class BoardCacheTests {
+
+    private Entities entities;
+
+    public BoardCacheTests() {
+        entities = new Entities();
+    }
+
+    @Test
+    public void testGamesShareLayout() throws IOException {
+        // each game gets its own tiles and rooms from the shared layout
+        Entities other = new Entities();
+        Board board = entities.getBoard();
+        Board otherBoard = other.getBoard();
+        assertNotSame(board.getTiles()[9][10], otherBoard.getTiles()[9][10]);
+        assertEquals(board.getTiles()[9][10].getName(), otherBoard.getTiles()[9][10].getName());
+        assertSame(other.getRooms().get("Kitchen"), otherBoard.getTiles()[1][1].getRoom());
+        assertEquals(entities.getRooms().get("Kitchen").getTiles().size(),
+                other.getRooms().get("Kitchen").getTiles().size());
+
+        Player player = new Player("Test", 't', 9, 10);
+        board.getTiles()[9][10].setPlayer(player);
+        assertTrue(otherBoard.getTiles()[9][10].getPlayer() == null);
+
+        // a board file that changes is read again
+        File file = File.createTempFile("cached", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "@@@@\n@--@\n@@@@\n".getBytes("UTF-8"));
+        int cached = BoardCache.size();
+        assertEquals(4, new Entities(file.getPath()).getBoard().getWidth());
+        assertEquals(4, new Entities(file.getPath()).getBoard().getWidth());
+        assertEquals(cached + 1, BoardCache.size());
+
+        Files.write(file.toPath(), "@@@@@\n@---@\n@@@@@\n".getBytes("UTF-8"));
+        assertTrue(file.setLastModified(file.lastModified() + 2000));
+        assertEquals(5, new Entities(file.getPath()).getBoard().getWidth());
+    }
+
+    @Test
+    public void testGamesShareReachabilityTables() {
+        ReachabilityTables tables = entities.getBoard().getReachabilityTables();
+        assertNotNull(tables);
+        assertSame(tables, new Entities().getBoard().getReachabilityTables());
+    }
+}
@@ -0,0 +1,53 @@
+package tests;
+
+import model.*;
+import org.junit.Test;
+import view.textui.BoardRenderer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test suite for drawing the board as text
+ *
+ * @see view.textui.BoardRenderer
+ *
+ * @author Marcel van Workum
+ */
+public class BoardRendererTests {
+
+    private Entities entities;
+
+    public BoardRendererTests() {
+        entities = new Entities();
+    }
+
+    @Test
+    public void testDiffMode() {
+        Board board = entities.getBoard();
+        Tile[][] tiles = board.getTiles();
+        Player player = new Player("Test", 't', 9, 10);
+        player.setPlayerNumber(3);
+        tiles[9][10].setPlayer(player);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BoardRenderer renderer = new BoardRenderer(board, new PrintStream(out));
+        renderer.render();
+        String frame = out.toString();
+        assertTrue(frame.contains(" 26") && frame.contains("A B C"));
+        assertEquals(board.getHeight() + 4, frame.length() - frame.replace("\n", "").length());
+
+        // in diff mode only the tiles that changed are drawn after the first frame
+        renderer.setDiffMode(true);
+        renderer.render();
+        int full = out.size();
+        tiles[9][10].setPlayer(null);
+        tiles[10][10].setPlayer(player);
+        renderer.render();
+        String diff = new String(out.toByteArray(), full, out.size() - full);
+        assertTrue(diff.startsWith("\u001B[11;19H"));
+        assertTrue(diff.contains("3") && diff.length() < 40);
+    }
+}
@@ -0,0 +1,50 @@
+package tests;
+
+import model.*;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test suite for the card catalogue and the card masks built from it
+ *
+ * @see model.CardId
+ *
+ * @author Marcel van Workum
+ */
+public class CardIdTests {
+
+    private Entities entities;
+
+    public CardIdTests() {
+        entities = new Entities();
+    }
+
+    @Test
+    public void testCardMasks() {
+        // every character, weapon and room that has a card is found by name
+        for (model.Character character : entities.getCharacters()) {
+            assertTrue(CardId.byName(character.getName()) != null);
+        }
+        for (Weapon weapon : entities.getWeapons()) {
+            assertTrue(CardId.byName(weapon.getName()) != null);
+        }
+        assertEquals(CardId.ALL, CardId.CHARACTERS | CardId.WEAPONS | CardId.ROOMS);
+        assertEquals(CardId.values().length, entities.getCards().size());
+
+        assertEquals(new Card("Rope", "Weapon"), new Card(CardId.ROPE));
+        assertEquals(new Card("Rope", "Weapon").hashCode(), new Card(CardId.ROPE).hashCode());
+
+        Player player = new Player("Test", 't', 9, 10);
+        player.setCharacter(entities.getCharacter("Mrs White"));
+        player.addCard(new Card(CardId.ROPE));
+        player.addCard(new Card(CardId.HALL));
+        assertEquals(CardId.ROPE.bit() | CardId.HALL.bit(), player.getHand());
+        assertTrue(player.containsCardWithName("Hall") && !player.containsCardWithName("Study"));
+
+        Suggestion suggestion = new Suggestion(player, entities.getWeapons().get(0), entities.getRooms().get("Hall"));
+        assertTrue(player.holdsAny(suggestion.getCardMask()));
+        suggestion = new Suggestion(player, entities.getWeapons().get(0), entities.getRooms().get("Study"));
+        assertEquals(player.holdsAny(suggestion.getCardMask()), entities.getWeapons().get(0).getName().equals("Rope"));
+    }
+}
@@ -3,7 +3,14 @@ package tests;
 import model.*;
 import org.junit.Test;
 
-import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
 
 /**
  * JUnit test suite for the collections of entities within the Cluedo game.
@@ -41,4 +48,426 @@ public class EntitiesTests {
             assertTrue(c.isUsed());
         }
     }
+
+    @Test
+    public void testBoardDistance() {
+        Board board = entities.getBoard();
+        Tile[][] tiles = board.getTiles();
+
+        assertTrue(board.distance(tiles[9][10], tiles[13][10]) == 4);
+        assertTrue(board.distance(tiles[13][10], tiles[9][10]) == 4);
+        assertTrue(board.distance(tiles[9][10], tiles[9][10]) == 0);
+
+        // walls can't be walked to or from
+        assertTrue(board.distance(tiles[9][10], tiles[0][10]) == -1);
+        assertTrue(board.distance(tiles[0][10], tiles[9][10]) == -1);
+    }
+
+    @Test
+    public void testWeaponRelocation() {
+        Board board = entities.getBoard();
+        Weapon weapon = entities.getWeapons().get(0);
+        Room kitchen = entities.getRooms().get("Kitchen");
+        Room study = entities.getRooms().get("Study");
+
+        kitchen.addWeaponToAvailableTile(board, weapon);
+        Tile first = board.getLocations().getTile(weapon);
+        assertTrue(first.getRoom() == kitchen);
+        assertTrue(first.getWeapon() == weapon);
+
+        study.addWeaponToAvailableTile(board, weapon);
+        Tile second = board.getLocations().getTile(weapon);
+        assertTrue(second.getRoom() == study);
+        assertTrue(first.getWeapon() == null);
+    }
+
+    @Test
+    public void testRoomGraph() {
+        RoomGraph graph = entities.getBoard().getRoomGraph();
+        Room kitchen = entities.getRooms().get("Kitchen");
+
+        Player player = new Player("Test", 't', 2, 3);
+        player.setRoom(kitchen);
+
+        // the secret passage is free
+        assertTrue(graph.stepsToRoom(player, entities.getRooms().get("Study")) == 0);
+        assertTrue(graph.expectedTurnsToRoom(player, entities.getRooms().get("Study")) == 0);
+
+        int steps = graph.stepsToRoom(player, entities.getRooms().get("Ball Room"));
+        assertTrue(steps > 0);
+        double turns = graph.expectedTurnsToRoom(player, entities.getRooms().get("Ball Room"));
+        assertTrue(turns >= steps / 6.0 && turns <= steps);
+
+        // the pool has no doors
+        assertTrue(graph.stepsToRoom(player, entities.getRooms().get("Pool")) == -1);
+    }
+
+    @Test
+    public void testRoomDistances() {
+        Board board = entities.getBoard();
+        Room kitchen = entities.getRooms().get("Kitchen");
+        Room study = entities.getRooms().get("Study");
+        Room ballRoom = entities.getRooms().get("Ball Room");
+
+        assertTrue(board.roomDistance(kitchen, kitchen) == 0);
+        assertTrue(board.roomDistance(kitchen, study) == 0);
+        assertTrue(board.roomDistance(kitchen, entities.getRooms().get("Pool")) == -1);
+
+        // closest pair of doors, unless going through the study is shorter
+        int closest = Integer.MAX_VALUE;
+        for (Tile from : kitchen.getDoors()) {
+            for (Tile to : ballRoom.getDoors()) {
+                closest = Math.min(closest, board.distance(from, to));
+            }
+        }
+        int distance = board.roomDistance(kitchen, ballRoom);
+        assertTrue(distance > 0 && distance <= closest);
+        assertTrue(distance == Math.min(closest, board.roomDistance(study, ballRoom)));
+        assertTrue(distance == board.roomDistance(ballRoom, kitchen));
+
+        // a passage added during the game is picked up by the next question
+        Room hall = entities.getRooms().get("Hall");
+        Player player = new Player("Test", 't', 2, 3);
+        player.setRoom(hall);
+        assertTrue(board.roomDistance(hall, study) > 0);
+        assertTrue(board.getRoomGraph().stepsToRoom(player, study) > 0);
+        hall.addPassage(kitchen, Passage.Kind.ONE_WAY);
+        assertTrue(board.roomDistance(hall, study) == 0);
+        assertTrue(board.getRoomGraph().stepsToRoom(player, study) == 0);
+        assertTrue(board.roomDistance(study, hall) > 0);
+    }
+
+    @Test
+    public void testReachabilityTables() throws IOException {
+        Board board = entities.getBoard();
+        BoardBits bits = board.getBits();
+        Tile[][] tiles = board.getTiles();
+        tiles[9][10].setPlayer(new Player("Blocker", 'b', 9, 10));
+
+        ReachabilityTables tables = ReachabilityTables.build(board);
+        assertFalse(tables.isLoaded());
+
+        File file = File.createTempFile("board", ".reach");
+        file.deleteOnExit();
+        tables.save(file);
+        ReachabilityTables loaded = ReachabilityTables.load(board, file);
+        assertTrue(loaded.isLoaded());
+        assertTrue(loaded.getOriginCount() == tables.getOriginCount());
+
+        long[] sources = new long[bits.getWords()];
+        long[] expected = new long[bits.getWords()];
+        long[] actual = new long[bits.getWords()];
+        for (int x = 0; x < tiles.length; x++) {
+            for (int y = 0; y < tiles[0].length; y++) {
+                Tile tile = tiles[x][y];
+                if (!tile.isWalkable() || (tile.isRoomTile() && tile.getRoom().getDoors().isEmpty())) continue;
+
+                Player player = new Player("Test", 't', x, y);
+                Arrays.fill(sources, 0);
+                if (tile.isRoomTile()) {
+                    player.setRoom(tile.getRoom());
+                    for (Tile door : tile.getRoom().getDoors()) {
+                        BoardBits.set(sources, bits.bitIndex(door.getX(), door.getY()));
+                    }
+                } else {
+                    BoardBits.set(sources, bits.bitIndex(x, y));
+                }
+
+                for (int roll = 0; roll <= ReachabilityTables.MAX_ROLL; roll++) {
+                    bits.reachable(sources, roll, expected);
+                    assertTrue(loaded.reachable(player, roll, bits, actual));
+                    assertArrayEquals(expected, actual);
+                }
+                assertFalse(loaded.reachable(player, ReachabilityTables.MAX_ROLL + 1, bits, actual));
+            }
+        }
+
+        // tables saved for another layout aren't loaded
+        File mansion = File.createTempFile("mansion", ".txt");
+        mansion.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(mansion, "UTF-8")) {
+            for (int i = 0; i < 10; i++) {
+                writer.println("@@@@@@@@@@");
+            }
+        }
+        assertTrue(ReachabilityTables.load(new Entities(mansion.getPath()).getBoard(), file) == null);
+
+        // nor are tables saved before the passages changed
+        entities.getRooms().get("Hall").addPassage(entities.getRooms().get("Kitchen"), Passage.Kind.ONE_WAY);
+        assertTrue(ReachabilityTables.load(board, file) == null);
+    }
+
+    @Test
+    public void testBoardLegend() throws IOException {
+        // the em dash is one character over three bytes, so it is one corridor tile
+        File directory = Files.createTempDirectory("board").toFile();
+        File boardFile = new File(directory, "cellar.txt");
+        try (PrintWriter writer = new PrintWriter(boardFile, "UTF-8")) {
+            writer.println("@@@@@@");
+            writer.println("@QQ0\u2014@");
+            writer.println("@Qqq-@");
+            writer.println("@@@@@@");
+        }
+        File legendFile = new File(directory, "cellar.legend");
+        try (PrintWriter writer = new PrintWriter(legendFile, "UTF-8")) {
+            writer.println("# the cellar");
+            writer.println("Q wall Cellar");
+            writer.println("q floor Cellar");
+            writer.println("0 door Cellar");
+            writer.println("one_way Cellar -> Hall");
+        }
+        boardFile.deleteOnExit();
+        legendFile.deleteOnExit();
+        directory.deleteOnExit();
+
+        Entities cellarEntities = new Entities(boardFile.getPath());
+        Board board = cellarEntities.getBoard();
+        assertTrue(board.getWidth() == 6 && board.getHeight() == 4);
+
+        Room cellar = cellarEntities.getRooms().get("Cellar");
+        assertTrue(cellar != null);
+        assertTrue(cellar.getTiles().size() == 6);
+        assertTrue(cellar.getDoors().size() == 1 && cellar.getDoors().get(0) == board.getTiles()[3][1]);
+        assertTrue(board.getTiles()[1][1].isWallTile() && board.getTiles()[1][1].getName() == 'Q');
+        assertTrue(board.getTiles()[4][1].getRoom() == null && board.getTiles()[4][1].isWalkable());
+        assertTrue(board.getTiles()[0][0].isBoundary());
+        assertSame(cellarEntities.getRooms().get("Hall"), cellar.getConnectingRoom());
+        assertTrue(cellarEntities.getRooms().get("Hall").getPassages().isEmpty());
+    }
+
+    @Test
+    public void testBoardImage() throws IOException {
+        Board board = entities.getBoard();
+        File file = File.createTempFile("board", BoardImage.EXTENSION);
+        file.deleteOnExit();
+        BoardImage.compile(board, file);
+
+        assertSame(BoardImage.map(file.getPath()), BoardImage.map(file.getPath()));
+        assertTrue(BoardImage.map(file.getPath()).hasDistanceTable());
+
+        Entities loadedEntities = new Entities(file.getPath());
+        Board loaded = loadedEntities.getBoard();
+        assertSame(loadedEntities.getRooms().get("Study"), loadedEntities.getRooms().get("Kitchen").getConnectingRoom());
+        assertTrue(loaded.getWidth() == board.getWidth() && loaded.getHeight() == board.getHeight());
+
+        Tile[][] tiles = board.getTiles();
+        Tile[][] loadedTiles = loaded.getTiles();
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                Tile tile = tiles[x][y];
+                Tile loadedTile = loadedTiles[x][y];
+                assertEquals(tile.getName(), loadedTile.getName());
+                assertEquals(tile.isBoundary(), loadedTile.isBoundary());
+                assertEquals(tile.isWallTile(), loadedTile.isWallTile());
+                assertEquals(tile.isDoor(), loadedTile.isDoor());
+                assertEquals(tile.getRoom() == null ? null : tile.getRoom().getName(),
+                        loadedTile.getRoom() == null ? null : loadedTile.getRoom().getName());
+            }
+        }
+
+        for (int i = 0; i < 200; i++) {
+            int x1 = (i * 7) % board.getWidth(), y1 = (i * 11) % board.getHeight();
+            int x2 = (i * 13) % board.getWidth(), y2 = (i * 3) % board.getHeight();
+            assertEquals(board.distance(tiles[x1][y1], tiles[x2][y2]),
+                    loaded.distance(loadedTiles[x1][y1], loadedTiles[x2][y2]));
+        }
+        assertEquals(board.getRooms().get("Kitchen").getDoors().size(),
+                loaded.getRooms().get("Kitchen").getDoors().size());
+    }
+
+    @Test
+    public void testTileTypesShared() {
+        Board board = entities.getBoard();
+        Tile[][] tiles = board.getTiles();
+
+        // kitchen floor and plain corridor
+        assertSame(tiles[2][2].getType(), tiles[3][3].getType());
+        assertSame(tiles[8][10].getType(), tiles[9][10].getType());
+        assertNotSame(tiles[2][2].getType(), tiles[9][10].getType());
+
+        // boards of other games share the types, but each tile finds its own game's room
+        Tile[][] otherTiles = new Entities().getBoard().getTiles();
+        assertSame(tiles[2][2].getType(), otherTiles[2][2].getType());
+        assertSame(entities.getRooms().get("Kitchen"), tiles[2][2].getRoom());
+        assertNotSame(tiles[2][2].getRoom(), otherTiles[2][2].getRoom());
+        assertEquals(tiles[2][2].getRoom().getName(), otherTiles[2][2].getRoom().getName());
+
+        Player player = new Player("Test", 't', 9, 10);
+        Weapon weapon = entities.getWeapons().get(0);
+        tiles[9][10].setPlayer(player);
+        tiles[8][10].setWeapon(weapon);
+        assertSame(player, tiles[9][10].getPlayer());
+        assertSame(weapon, tiles[8][10].getWeapon());
+        assertTrue(tiles[9][10].isOccupied() && tiles[8][10].isOccupied());
+        assertTrue(tiles[9][10].getWeapon() == null && tiles[8][10].getPlayer() == null);
+
+        tiles[9][10].setPlayer(null);
+        tiles[10][10].setPlayer(player);
+        assertFalse(tiles[9][10].isOccupied());
+        assertSame(tiles[10][10], board.getLocations().getTile(player));
+    }
+
+    @Test
+    public void testGameStateFork() {
+        Board board = entities.getBoard();
+        Tile[][] tiles = board.getTiles();
+
+        Player player = new Player("Test", 't', 9, 10);
+        player.setAlive(true);
+        tiles[9][10].setPlayer(player);
+        Weapon weapon = entities.getWeapons().get(0);
+        tiles[8][10].setWeapon(weapon);
+
+        GameState state = board.snapshot();
+        GameState fork = state.fork();
+        fork.movePlayer(player, tiles[12][10]);
+        fork.moveWeapon(weapon, tiles[2][2]);
+        fork.setAlive(player, false);
+
+        // the original and the board are untouched
+        assertSame(tiles[9][10], state.getTile(player));
+        assertSame(tiles[8][10], state.getTile(weapon));
+        assertTrue(state.isAlive(player) && state.isOccupied(tiles[9][10]));
+        assertSame(player, tiles[9][10].getPlayer());
+
+        assertSame(tiles[12][10], fork.getTile(player));
+        assertFalse(fork.isOccupied(tiles[9][10]) || fork.isOccupied(tiles[8][10]));
+        assertTrue(fork.isOccupied(tiles[2][2]) && !fork.isAlive(player));
+
+        // moves are worked out against the fork's positions
+        long[] sources = new long[board.getBits().getWords()];
+        long[] reached = new long[sources.length];
+        BoardBits.set(sources, board.getBits().bitIndex(10, 10));
+        board.getBits().reachable(sources, 2, fork, reached);
+        assertTrue(BoardBits.isSet(reached, board.getBits().bitIndex(9, 10)));
+        assertFalse(BoardBits.isSet(reached, board.getBits().bitIndex(12, 10)));
+
+        // forking a fork leaves both independent
+        GameState second = fork.fork();
+        second.movePlayer(player, tiles[13][10]);
+        assertSame(tiles[12][10], fork.getTile(player));
+
+        board.restore(fork);
+        assertSame(player, tiles[12][10].getPlayer());
+        assertTrue(tiles[9][10].getPlayer() == null && tiles[8][10].getWeapon() == null);
+        assertSame(weapon, tiles[2][2].getWeapon());
+        assertTrue(player.getXPos() == 12 && player.getYPos() == 10 && !player.isAlive());
+
+        board.restore(state);
+        assertSame(player, tiles[9][10].getPlayer());
+        assertSame(weapon, tiles[8][10].getWeapon());
+        assertTrue(tiles[2][2].getWeapon() == null && player.isAlive());
+    }
+
+    @Test
+    public void testGameStateForkUnknownToken() {
+        Board board = entities.getBoard();
+        Tile[][] tiles = board.getTiles();
+
+        Player player = new Player("Test", 't', 9, 10);
+        player.setAlive(true);
+        tiles[9][10].setPlayer(player);
+
+        GameState state = board.snapshot();
+        GameState fork = state.fork();
+        long hash = board.getLocations().getHash();
+        long stateHash = state.getHash();
+
+        // looking up tokens the board has never seen doesn't number them
+        Player stranger = new Player("Stranger", 's', 12, 10);
+        stranger.setAlive(true);
+        Weapon weapon = new Weapon("TestWeapon", 'W');
+        assertFalse(fork.isAlive(stranger));
+        assertNull(fork.getTile(stranger));
+        assertNull(fork.getTile(weapon));
+
+        assertEquals(hash, board.getLocations().getHash());
+        assertEquals(stateHash, state.getHash());
+        assertEquals(stateHash, fork.getHash());
+        assertTrue(state.isAlive(player) && fork.isAlive(player));
+
+        // and they can't be moved in a state
+        try {
+            fork.movePlayer(stranger, tiles[12][10]);
+            fail("Moved a player that was never on the board");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(hash, board.getLocations().getHash());
+        assertNull(board.snapshot().getTile(stranger));
+    }
+
+    @Test
+    public void testZobristHash() {
+        Board board = entities.getBoard();
+        LocationIndex locations = board.getLocations();
+        Tile[][] tiles = board.getTiles();
+
+        Player player = new Player("Test", 't', 9, 10);
+        player.setAlive(true);
+        tiles[9][10].setPlayer(player);
+        long start = locations.getHash();
+        GameState state = board.snapshot();
+        assertEquals(start, state.getHash());
+
+        // moving away and back again gives the same hash
+        tiles[9][10].setPlayer(null);
+        tiles[10][10].setPlayer(player);
+        assertNotEquals(start, locations.getHash());
+        tiles[10][10].setPlayer(null);
+        tiles[9][10].setPlayer(player);
+        assertEquals(start, locations.getHash());
+
+        locations.setTurn(3);
+        locations.setAlive(player, false);
+        assertNotEquals(start, locations.getHash());
+
+        // a fork that reaches the same state by a different route has the same hash
+        GameState fork = state.fork();
+        fork.setTurn(3);
+        fork.setAlive(player, false);
+        assertEquals(locations.getHash(), fork.getHash());
+        fork.movePlayer(player, tiles[12][10]);
+        assertEquals(start, state.getHash());
+
+        board.restore(fork);
+        assertEquals(fork.getHash(), locations.getHash());
+        board.restore(state);
+        assertEquals(start, locations.getHash());
+        assertTrue(player.isAlive());
+    }
+
+    @Test
+    public void testRoomFreeSlots() {
+        Board board = entities.getBoard();
+        Room kitchen = entities.getRooms().get("Kitchen");
+        int floor = 0;
+        for (Tile tile : kitchen.getTiles()) {
+            if (!tile.isDoor() && !tile.isWallTile()) floor++;
+        }
+        assertEquals(floor, kitchen.getFreeSlotCount());
+
+        Weapon weapon = entities.getWeapons().get(0);
+        kitchen.addWeaponToAvailableTile(board, weapon);
+        Tile weaponTile = board.getLocations().getTile(weapon);
+        assertSame(kitchen, weaponTile.getRoom());
+        assertEquals(floor - 1, kitchen.getFreeSlotCount());
+
+        // random slots are always free floor tiles, and the count follows every move
+        Random random = new Random(1);
+        Player player = new Player("Test", 't', 9, 10);
+        for (int i = 0; i < 200; i++) {
+            Tile slot = kitchen.getRandomFreeSlot(random);
+            assertTrue(slot.getRoom() == kitchen && !slot.isDoor() && !slot.isWallTile() && !slot.isOccupied());
+            Tile current = board.getLocations().getTile(player);
+            if (current != null) current.setPlayer(null);
+            slot.setPlayer(player);
+            assertEquals(floor - 2, kitchen.getFreeSlotCount());
+        }
+
+        board.getLocations().getTile(player).setPlayer(null);
+        weaponTile.setWeapon(null);
+        assertEquals(floor, kitchen.getFreeSlotCount());
+        assertTrue(kitchen.getFreeSlot() != null);
+    }
 }
@@ -1,6 +1,7 @@
 package tests;
 
 import controller.GameController;
+import model.Dice;
 import org.junit.Test;
 
 import static org.junit.Assert.assertTrue;
@@ -28,4 +29,34 @@ public class GameControllerTests {
             assertTrue(roll <= 6 && roll > 0);
         }
     }
+
+    @Test
+    public void testRollingTwoDice() {
+        GameController twoDiceController = new GameController(new Dice(2, 6));
+        for (int i = 0; i < 1000; i++) {
+            int roll = twoDiceController.rollDice();
+            assertTrue(roll <= 12 && roll >= 2);
+        }
+    }
+
+    @Test
+    public void testSeededDice() {
+        Dice first = new Dice(2, 6, 42);
+        Dice second = new Dice(2, 6, 42);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(first.roll() == second.roll());
+        }
+    }
+
+    @Test
+    public void testDiceDistribution() {
+        Dice dice = new Dice(2, 6);
+        double total = 0;
+        for (int roll = dice.getMin(); roll <= dice.getMax(); roll++) {
+            total += dice.probability(roll);
+        }
+        assertTrue(Math.abs(total - 1) < 1e-9);
+        assertTrue(Math.abs(dice.probability(7) - 6.0 / 36) < 1e-9);
+        assertTrue(dice.probability(1) == 0);
+    }
 }
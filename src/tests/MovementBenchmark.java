@@ -0,0 +1,177 @@
+package tests;
+
+import controller.MovementController;
+import model.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark of move validation in the {@link controller.MovementController} over boards of increasing size. The
+ * standard board is measured first, followed by generated mansions made up of a grid of rooms separated by corridors.
+ *
+ * Run the main method from the project directory so that Board.txt can be found.
+ *
+ * @author Marcel van Workum
+ */
+public class MovementBenchmark {
+
+    /**
+     * Sizes of the generated boards
+     */
+    private static final int[] SIZES = { 50, 100, 200 };
+
+    /**
+     * Number of moves validated for each board
+     */
+    private static final int MOVES = 20000;
+
+    /**
+     * Room letters used by the board parser: wall, floor, door
+     */
+    private static final String[] ROOMS = { "Kk1", "Bb2", "Cc3", "Dd4", "Ii5", "Yy6", "Hh7", "Ss8", "Ll9" };
+
+    /**
+     * Each room is placed in a block of this many tiles square
+     */
+    private static final int BLOCK = 12;
+
+    /**
+     * Runs the benchmark, printing a line for each board
+     *
+     * @param args redundant
+     * @throws IOException if a generated board can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.printf("%-10s %8s %10s %14s %14s%n", "board", "tiles", "load ms", "corridor us", "room us");
+        benchmark("25x26", "Board.txt");
+
+        for (int size : SIZES) {
+            File file = File.createTempFile("mansion-" + size, ".txt");
+            file.deleteOnExit();
+            writeMansion(file, size, new Random(size));
+
+            benchmark(size + "x" + size, file.getPath());
+        }
+    }
+
+    /**
+     * Times loading a board, and move validation for a player in a corridor and for a player leaving a room
+     *
+     * @param name Name of the board
+     * @param boardFile Board file to load
+     */
+    private static void benchmark(String name, String boardFile) {
+        long start = System.nanoTime();
+        Board board = new Entities(boardFile).getBoard();
+        MovementController movementController = new MovementController(board);
+        double loadMillis = (System.nanoTime() - start) / 1e6;
+
+        List<Tile> corridor = new ArrayList<>();
+        List<Tile> floor = new ArrayList<>();
+        for (Tile[] column : board.getTiles()) {
+            for (Tile tile : column) {
+                if (!tile.isWalkable() || !board.isInPlayArea(tile.getX(), tile.getY())) continue;
+                if (tile.isRoomTile()) {
+                    if (!tile.isDoor()) floor.add(tile);
+                } else if (!tile.isBoundary()) {
+                    corridor.add(tile);
+                }
+            }
+        }
+
+        Random random = new Random(1);
+        Dice dice = new Dice(2, 6, 1);
+
+        // warm up the JIT (and build the distance table where there is one) before timing
+        time(movementController, corridor, dice, random, MOVES);
+        double corridorMicros = time(movementController, corridor, dice, random, MOVES);
+        double roomMicros = time(movementController, floor, dice, random, MOVES);
+
+        System.out.printf("%-10s %8d %10.1f %14.2f %14.2f%n", name, board.getWidth() * board.getHeight(),
+                loadMillis, corridorMicros, roomMicros);
+    }
+
+    /**
+     * Validates a number of random moves, each from a random starting tile to a random tile near it
+     *
+     * @param movementController Movement controller to validate with
+     * @param starts Tiles to start from
+     * @param dice Dice to roll for each move
+     * @param random Random number generator
+     * @param moves Number of moves to validate
+     * @return Average time per move in microseconds
+     */
+    private static double time(MovementController movementController, List<Tile> starts, Dice dice, Random random,
+                               int moves) {
+        int valid = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < moves; i++) {
+            Tile tile = starts.get(random.nextInt(starts.size()));
+            Player player = new Player("Bench", 'b', tile.getX(), tile.getY());
+            player.setRoom(tile.getRoom());
+
+            int roll = dice.roll();
+            Move move = new Move(tile.getX() + random.nextInt(2 * roll + 1) - roll,
+                    tile.getY() + random.nextInt(2 * roll + 1) - roll);
+            if (movementController.isValidMove(move, player, roll)) valid++;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // stops the loop being optimised away
+        if (valid < 0) System.out.println(valid);
+        return elapsed / 1e3 / moves;
+    }
+
+    /**
+     * Writes a generated board, with a room in every block of the board and corridors in between
+     *
+     * @param file File to write to
+     * @param size Width and height of the board
+     * @param random Random number generator
+     * @throws IOException if the file can't be written
+     */
+    private static void writeMansion(File file, int size, Random random) throws IOException {
+        char[][] grid = new char[size][size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                boolean edge = x == 0 || y == 0 || x == size - 1 || y == size - 1;
+                grid[y][x] = edge ? '@' : '-';
+            }
+        }
+
+        int room = 0;
+        for (int blockY = 1; blockY + BLOCK < size; blockY += BLOCK) {
+            for (int blockX = 1; blockX + BLOCK < size; blockX += BLOCK) {
+                String letters = ROOMS[room++ % ROOMS.length];
+                int width = 5 + random.nextInt(BLOCK - 7);
+                int height = 5 + random.nextInt(BLOCK - 7);
+                int left = blockX + 1 + random.nextInt(BLOCK - width - 1);
+                int top = blockY + 1 + random.nextInt(BLOCK - height - 1);
+
+                for (int y = top; y < top + height; y++) {
+                    for (int x = left; x < left + width; x++) {
+                        boolean wall = x == left || y == top || x == left + width - 1 || y == top + height - 1;
+                        grid[y][x] = wall ? letters.charAt(0) : letters.charAt(1);
+                    }
+                }
+
+                // one door on each side of the room
+                grid[top][left + 1 + random.nextInt(width - 2)] = letters.charAt(2);
+                grid[top + height - 1][left + 1 + random.nextInt(width - 2)] = letters.charAt(2);
+                grid[top + 1 + random.nextInt(height - 2)][left] = letters.charAt(2);
+                grid[top + 1 + random.nextInt(height - 2)][left + width - 1] = letters.charAt(2);
+            }
+        }
+
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            for (char[] row : grid) {
+                writer.println(new String(row));
+            }
+        }
+    }
+}
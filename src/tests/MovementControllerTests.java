@@ -1,11 +1,18 @@
 package tests;
 
 import controller.MovementController;
+import controller.ReachHeatmap;
 import model.*;
 import model.Character;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -319,6 +326,228 @@ public class MovementControllerTests {
 
 
 
+    @Test
+    public void testMovementLargeRoll() {
+        Move move = new Move(16, 23);
+        int roll = 12;
+
+        Player player = setupPlayer(new Player("Test", 't', 15, 16));
+
+        ArrayList<Player> players = new ArrayList<>();
+        players.add(player);
+        entities.setPlayers(players);
+
+        assertTrue(movementController.isValidMove(move, player, roll));
+    }
+
+    @Test
+    public void testReachableTilesMatchesValidMoves() {
+        int roll = 4;
+
+        Player player = setupPlayer(new Player("Test", 't', 9, 10));
+
+        ArrayList<Player> players = new ArrayList<>();
+        players.add(player);
+        entities.setPlayers(players);
+
+        Set<Tile> reachable = movementController.reachableTiles(player, roll);
+        assertFalse(reachable.contains(entities.getBoard().getTiles()[9][10]));
+
+        Tile[][] tiles = entities.getBoard().getTiles();
+        for (int x = 0; x < tiles.length; x++) {
+            for (int y = 0; y < tiles[0].length; y++) {
+                assertEquals(reachable.contains(tiles[x][y]), movementController.isValidMove(new Move(x, y), player, roll));
+            }
+        }
+    }
+
+
+    @Test
+    public void testMovementOutOfRoomAllDoors() {
+        int roll = 1;
+
+        Player player = setupPlayer(new Player("Test", 't', 11, 4));
+
+        ArrayList<Player> players = new ArrayList<>();
+        players.add(player);
+        entities.setPlayers(players);
+
+        assertTrue(movementController.isValidMove(new Move(7, 5), player, roll));
+        assertTrue(movementController.isValidMove(new Move(16, 5), player, roll));
+        assertTrue(movementController.isValidMove(new Move(9, 8), player, roll));
+        assertTrue(movementController.isValidMove(new Move(14, 8), player, roll));
+        assertFalse(movementController.isValidMove(new Move(11, 10), player, roll));
+    }
+
+    @Test
+    public void testMovementOutOfRoomOntoPlayer() {
+        Move move = new Move(7, 5);
+        int roll = 1;
+
+        Player player1 = setupPlayer(new Player("Test", 't', 11, 4));
+
+        ArrayList<Player> players = new ArrayList<>();
+        players.add(player1);
+        entities.setPlayers(players);
+
+        assertTrue(movementController.isValidMove(move, player1, roll));
+
+        Player player2 = setupPlayer(new Player("Test", 't', 7, 5));
+        players.add(player2);
+
+        assertFalse(movementController.isValidMove(move, player1, roll));
+    }
+
+
+    @Test
+    public void testFindPath() {
+        Move move = new Move(8, 10);
+        int roll = 5;
+
+        Player player = setupPlayer(new Player("Test", 't', 13, 10));
+
+        ArrayList<Player> players = new ArrayList<>();
+        players.add(player);
+        entities.setPlayers(players);
+
+        List<Tile> route = movementController.findPath(player, move, roll);
+        assertEquals(6, route.size());
+        assertTrue(route.get(0) == entities.getBoard().getTiles()[13][10]);
+        assertTrue(route.get(5) == entities.getBoard().getTiles()[8][10]);
+
+        assertNull(movementController.findPath(player, move, 4));
+    }
+
+
+    @Test
+    public void testValidateMoves() {
+        int roll = 5;
+
+        Player player = setupPlayer(new Player("Test", 't', 13, 10));
+
+        ArrayList<Player> players = new ArrayList<>();
+        players.add(player);
+        entities.setPlayers(players);
+
+        ArrayList<Move> moves = new ArrayList<>();
+        for (int x = -1; x <= 25; x++) {
+            for (int y = -1; y <= 26; y++) {
+                moves.add(new Move(x, y));
+            }
+        }
+
+        BitSet valid = movementController.validateMoves(player, roll, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            assertEquals(movementController.isValidMove(moves.get(i), player, roll), valid.get(i));
+        }
+    }
+
+
+    @Test
+    public void testMovementOnLargeBoard() throws IOException {
+        // too big for a distance table, so the move has to be searched for
+        File file = File.createTempFile("large-board", ".txt");
+        file.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            for (int y = 0; y < 70; y++) {
+                StringBuilder line = new StringBuilder();
+                for (int x = 0; x < 70; x++) {
+                    line.append(x == 0 || y == 0 || x == 69 || y == 69 ? '@' : '-');
+                }
+                writer.println(line);
+            }
+        }
+
+        Board board = new Entities(file.getPath()).getBoard();
+        assertEquals(70, board.getWidth());
+        assertEquals(70, board.getHeight());
+        assertFalse(board.hasDistanceTable());
+
+        MovementController largeMovementController = new MovementController(board);
+        Player player = new Player("Test", 't', 5, 5);
+
+        assertTrue(largeMovementController.isValidMove(new Move(10, 10), player, 10));
+        assertFalse(largeMovementController.isValidMove(new Move(10, 10), player, 9));
+        assertTrue(largeMovementController.isValidMove(new Move(60, 60), player, 110));
+    }
+
+
+    @Test
+    public void testReachHeatmapMatchesValidMoves() {
+        Dice dice = new Dice();
+        ReachHeatmap reachHeatmap = new ReachHeatmap(entities.getBoard(), dice);
+
+        Player corridor = setupPlayer(new Player("Test", 't', 9, 10));
+        Player room = setupPlayer(new Player("Test", 'u', 11, 4));
+
+        ArrayList<Player> players = new ArrayList<>();
+        players.add(corridor);
+        players.add(room);
+        entities.setPlayers(players);
+
+        Tile[][] tiles = entities.getBoard().getTiles();
+        for (Player player : players) {
+            ReachHeatmap.Heatmap heatmap = reachHeatmap.heatmap(player);
+            assertSame(heatmap, reachHeatmap.heatmap(player));
+
+            for (int x = 0; x < tiles.length; x++) {
+                for (int y = 0; y < tiles[0].length; y++) {
+                    double chance = 0;
+                    for (int roll = dice.getMin(); roll <= dice.getMax(); roll++) {
+                        if (movementController.isValidMove(new Move(x, y), player, roll)) chance += dice.probability(roll);
+                    }
+                    assertEquals(chance, heatmap.probability(tiles[x][y]), 1e-9);
+                }
+            }
+        }
+
+        // a player in a room can always step on to one of its doors
+        assertEquals(1.0, reachHeatmap.heatmap(room).probability(room.getRoom()), 1e-9);
+        assertEquals(0.0, reachHeatmap.heatmap(corridor).probability(entities.getRooms().get("Pool")), 1e-9);
+    }
+
+
+    @Test
+    public void testRoutePlannerPassages() {
+        RoutePlanner planner = movementController.getRoutePlanner();
+        RoomDistances roomDistances = entities.getBoard().getRoomDistances();
+        Room kitchen = entities.getRooms().get("Kitchen");
+        Room study = entities.getRooms().get("Study");
+
+        // the standard secret passages come from the legend
+        assertEquals(0, planner.stepsBetween(kitchen, study));
+        assertEquals(0, planner.stepsBetween(entities.getRooms().get("Lounge"),
+                entities.getRooms().get("Conservatory")));
+
+        // the room distances are read from the same routes
+        for (Room from : roomDistances.getRooms()) {
+            for (Room to : roomDistances.getRooms()) {
+                assertEquals(planner.stepsBetween(from, to), roomDistances.distance(from, to));
+            }
+        }
+
+        Player player = setupPlayer(new Player("Test", 't', 13, 10));
+        assertEquals(planner.stepsToRoom(player, kitchen), movementController.stepsToRoom(player, study));
+    }
+
+
+    @Test
+    public void testRoutePlannerOneWayPassage() {
+        RoutePlanner planner = movementController.getRoutePlanner();
+        Room kitchen = entities.getRooms().get("Kitchen");
+        Room study = entities.getRooms().get("Study");
+        Room hall = entities.getRooms().get("Hall");
+
+        // a one way passage only shortens routes going its way
+        int hallToStudy = planner.stepsBetween(hall, study);
+        int studyToHall = planner.stepsBetween(study, hall);
+        assertTrue(hallToStudy > 0);
+        hall.addPassage(kitchen, Passage.Kind.ONE_WAY);
+        assertEquals(0, planner.stepsBetween(hall, study));
+        assertEquals(studyToHall, planner.stepsBetween(study, hall));
+    }
+
+
     /**
      * Helper method to create a player object and associate it with all the needed goodness
      * @param player Player to create
@@ -0,0 +1,106 @@
+package tests;
+
+import model.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test suite for what players can work out from the suggestions
+ *
+ * @see model.Notebook
+ * @see model.Deductions
+ *
+ * @author Marcel van Workum
+ */
+public class NotebookTests {
+
+    private static final CardId[][] HANDS = {
+            { CardId.MRS_WHITE, CardId.MISS_SCARLETT, CardId.DAGGER, CardId.LEAD_PIPE, CardId.STUDY, CardId.LOUNGE },
+            { CardId.PROFESSOR_PLUM, CardId.REVEREND_GREEN, CardId.REVOLVER, CardId.ROPE, CardId.CONSERVATORY,
+                    CardId.BALL_ROOM },
+            { CardId.COLONEL_MUSTARD, CardId.SPANNER, CardId.BILLIARD_ROOM, CardId.LIBRARY, CardId.HALL,
+                    CardId.DINING_ROOM } };
+
+    private List<Player> players;
+
+    public NotebookTests() {
+        players = new ArrayList<>();
+        for (CardId[] hand : HANDS) {
+            Player player = new Player("Test", 't', 9, 10);
+            for (CardId id : hand) {
+                player.addCard(new Card(id));
+            }
+            players.add(player);
+        }
+    }
+
+    @Test
+    public void testNotebookDeductions() {
+        Player first = players.get(0);
+        Player second = players.get(1);
+        Player third = players.get(2);
+        Deductions deductions = new Deductions(players, 0);
+        Notebook notebook = deductions.getNotebook(first);
+
+        // a player starts out only knowing their own hand
+        assertEquals(first.getHand(), notebook.getHas(first));
+        assertEquals(CardId.ALL & ~first.getHand(), notebook.getHasNot(first));
+        assertEquals(first.getHand(), notebook.getHasNot(second) & first.getHand());
+        assertEquals(0, notebook.getHas(second));
+        assertFalse(notebook.isSolved());
+
+        // nobody else can refute the solution, so the first player has it
+        int solution = CardId.MRS_PEACOCK.bit() | CardId.CANDLESTICK.bit() | CardId.KITCHEN.bit();
+        deductions.cannotRefute(second, solution);
+        deductions.cannotRefute(third, solution);
+        assertTrue(notebook.isSolved());
+        assertEquals(solution, notebook.getSolution());
+        assertEquals(solution, notebook.getPossibleSolution());
+
+        // but the second player never saw whether the first could refute
+        assertFalse(deductions.getNotebook(second).isSolved());
+        assertEquals(solution, deductions.getNotebook(second).getPossibleSolution() & solution);
+
+        // the third player shows the hall to the second, and the first works out which card it was
+        int suggested = CardId.MRS_PEACOCK.bit() | CardId.CANDLESTICK.bit() | CardId.HALL.bit();
+        int version = notebook.getVersion();
+        deductions.refuted(second, third, new Card(CardId.HALL), suggested);
+        assertTrue(notebook.getVersion() > version);
+        assertTrue((notebook.getHas(third) & CardId.HALL.bit()) != 0);
+        assertTrue((deductions.getNotebook(second).getHas(third) & CardId.HALL.bit()) != 0);
+        assertEquals(third.getHand(), deductions.getNotebook(third).getHas(third));
+    }
+
+    @Test
+    public void testContradictionIgnored() {
+        Player first = players.get(0);
+        Player second = players.get(1);
+        Player third = players.get(2);
+        Deductions deductions = new Deductions(players, 0);
+        Notebook notebook = deductions.getNotebook(first);
+
+        // the second player shows the rope, then is misreported as not being able to refute it
+        int suggested = CardId.MRS_PEACOCK.bit() | CardId.ROPE.bit() | CardId.KITCHEN.bit();
+        assertTrue(deductions.refuted(first, second, new Card(CardId.ROPE), suggested));
+        int has = notebook.getHas(second);
+        int hasNot = notebook.getHasNot(second);
+        int version = notebook.getVersion();
+        assertFalse(deductions.cannotRefute(second, CardId.ROPE.bit()));
+
+        // the first player's notebook is left as it was, while the third player still learns from it
+        assertEquals(has, notebook.getHas(second));
+        assertEquals(hasNot, notebook.getHasNot(second));
+        assertEquals(version, notebook.getVersion());
+        assertEquals(1, notebook.getIgnoredCount());
+        assertEquals(0, deductions.getNotebook(third).getIgnoredCount());
+        assertTrue((deductions.getNotebook(third).getHasNot(second) & CardId.ROPE.bit()) != 0);
+
+        // and the notebook carries on learning afterwards
+        assertTrue(deductions.cannotRefute(third, CardId.KITCHEN.bit()));
+        assertTrue((notebook.getHasNot(third) & CardId.KITCHEN.bit()) != 0);
+    }
+}
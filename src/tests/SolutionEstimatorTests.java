@@ -0,0 +1,97 @@
+package tests;
+
+import model.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test suite for estimating the solution from a player's notebook
+ *
+ * @see model.SolutionEstimator
+ *
+ * @author Marcel van Workum
+ */
+public class SolutionEstimatorTests {
+
+    private List<Player> players;
+    private Deductions deductions;
+
+    public SolutionEstimatorTests() {
+        players = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            players.add(new Player("Test", 't', 9, 10));
+        }
+        // the solution is the first card of each type and the rest are dealt in turn, three left over
+        int solution = CardId.MRS_PEACOCK.bit() | CardId.CANDLESTICK.bit() | CardId.KITCHEN.bit();
+        int dealt = 0;
+        for (CardId id : CardId.values()) {
+            if ((solution & id.bit()) == 0 && dealt < 15) {
+                players.get(dealt++ % 3).addCard(new Card(id));
+            }
+        }
+        deductions = new Deductions(players, 3);
+    }
+
+    @Test
+    public void testSolutionEstimator() {
+        int solution = CardId.MRS_PEACOCK.bit() | CardId.CANDLESTICK.bit() | CardId.KITCHEN.bit();
+        Notebook notebook = deductions.getNotebook(players.get(0));
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        SolutionEstimator estimator = new SolutionEstimator(pool, 0.02, 100000);
+        SolutionEstimator.Estimate estimate = estimator.estimate(notebook, new SplittableRandom(7), Long.MAX_VALUE);
+        assertTrue(estimate.hasConverged());
+        assertTrue(estimate.getSamples() < 100000);
+
+        // every character the first player doesn't hold is as likely as any other
+        int candidates = CardId.CHARACTERS & ~players.get(0).getHand();
+        double total = 0;
+        for (CardId id : CardId.values()) {
+            if ((CardId.CHARACTERS & id.bit()) == 0) continue;
+            if ((candidates & id.bit()) == 0) {
+                assertEquals(0, estimate.getProbability(id), 0);
+            } else {
+                assertEquals(1.0 / Integer.bitCount(candidates), estimate.getProbability(id), 0.04);
+            }
+            total += estimate.getProbability(id);
+        }
+        assertEquals(1, total, 1e-9);
+
+        // the same seed gives the same estimate
+        SolutionEstimator.Estimate again = estimator.estimate(notebook, new SplittableRandom(7), Long.MAX_VALUE);
+        assertEquals(estimate.getProbability(CardId.DAGGER), again.getProbability(CardId.DAGGER), 0);
+
+        // players who can't refute leave fewer places for the suggested cards outside the solution
+        deductions.cannotRefute(players.get(1), solution);
+        deductions.cannotRefute(players.get(2), solution);
+        estimate = estimator.estimate(notebook, new SplittableRandom(7), Long.MAX_VALUE);
+        assertTrue(estimate.getProbability(CardId.MRS_PEACOCK) > 1.0 / Integer.bitCount(candidates));
+        assertEquals(CardId.MRS_PEACOCK, estimate.getMostLikely(CardId.CHARACTERS));
+        pool.shutdown();
+    }
+
+    @Test
+    public void testTimeBudget() {
+        Notebook notebook = deductions.getNotebook(players.get(0));
+
+        // a tolerance of nothing never converges, so only the clock stops the sampling, part way through a round
+        ForkJoinPool pool = new ForkJoinPool(2);
+        SolutionEstimator estimator = new SolutionEstimator(pool, 0, Integer.MAX_VALUE);
+        long start = System.nanoTime();
+        SolutionEstimator.Estimate estimate = estimator.estimate(notebook, new SplittableRandom(7), 20000000L);
+        assertTrue(System.nanoTime() - start < 2000000000L);
+        assertFalse(estimate.hasConverged());
+        assertTrue(estimate.getSamples() > 0);
+
+        // with no time at all nothing is dealt
+        estimate = estimator.estimate(notebook, new SplittableRandom(7), 0);
+        assertEquals(0, estimate.getSamples());
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,342 @@
+package view.textui;
+
+import controller.GameController;
+import model.Board;
+import model.BoundaryTile;
+import model.Player;
+import model.Tile;
+import model.Weapon;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Draws a {@link Board} as text for the text client.
+ *
+ * A whole frame is put together in one reusable buffer and written to the output in a single write, rather than a
+ * print for every tile. In diff mode only the tiles that changed since the last frame are written, each one moved to
+ * with an ANSI cursor position, which keeps redraws down to a few bytes when a player moves. Diff mode relies on the
+ * board staying where it was drawn at the top of the terminal, so anything that scrolls it away should call
+ * {@link #invalidate()} to have the next frame drawn in full.
+ *
+ * @author Marcel van Workum
+ */
+public class BoardRenderer {
+
+	private static final String RESET = "\u001B[0m";
+	private static final String GREEN = "\u001B[32m";
+	private static final String RED = "\u001B[31m";
+	private static final String YELLOW = "\u001B[33m";
+	private static final String BLUE = "\u001B[34m";
+	private static final String CLEAR = "\u001B[2J\u001B[H";
+
+	/**
+	 * What a tile shows, kept in the top bits of a tile's code with the character it shows below them
+	 */
+	private static final int PLAIN = 0;
+	private static final int BOUNDARY = 1;
+	private static final int CURRENT_PLAYER = 2;
+	private static final int PLAYER = 3;
+	private static final int WEAPON = 4;
+
+	private final Board board;
+	private final PrintStream out;
+	private final CharsetEncoder encoder;
+
+	/**
+	 * Frame being put together, and its length
+	 */
+	private char[] frame = new char[4096];
+	private int length;
+
+	/**
+	 * Encoded frame that is written to the output
+	 */
+	private ByteBuffer bytes = ByteBuffer.allocate(0);
+
+	/**
+	 * Code of each tile (y * width + x) as of the last frame
+	 */
+	private final int[] drawn;
+
+	private boolean diffMode;
+	private boolean isDrawn;
+	private boolean wasColoured;
+
+	/**
+	 * Number of lines in a full frame, which is where the cursor is left after a diff
+	 */
+	private int frameLines;
+
+	/**
+	 * Constructor
+	 *
+	 * @param board Board to draw
+	 * @param out Where to write the frames
+	 */
+	public BoardRenderer(Board board, PrintStream out) {
+		this.board = board;
+		this.out = out;
+		this.encoder = Charset.defaultCharset().newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.drawn = new int[board.getWidth() * board.getHeight()];
+	}
+
+	/**
+	 * Draws the board. In diff mode, only the tiles that changed since the last frame are drawn.
+	 */
+	public void render() {
+		boolean coloured = GameController.IS_GAME_COLOURED;
+		length = 0;
+		if (diffMode && isDrawn && coloured == wasColoured) {
+			composeChanges(coloured);
+		} else {
+			composeFrame(coloured);
+		}
+		wasColoured = coloured;
+		write();
+	}
+
+	/**
+	 * Sets whether frames after the first only redraw the tiles that changed. Diff mode needs a terminal that
+	 * understands ANSI cursor positioning.
+	 *
+	 * @param diffMode Should only changes be drawn
+	 */
+	public void setDiffMode(boolean diffMode) {
+		this.diffMode = diffMode;
+		invalidate();
+	}
+
+	/**
+	 * @return are only changes drawn
+	 */
+	public boolean isDiffMode() {
+		return diffMode;
+	}
+
+	/**
+	 * Forgets the last frame, so that the next one is drawn in full
+	 */
+	public void invalidate() {
+		isDrawn = false;
+	}
+
+	/**
+	 * Puts together a full frame: every tile, the row numbers down the right and the column letters along the bottom
+	 *
+	 * @param coloured Is the frame coloured
+	 */
+	private void composeFrame(boolean coloured) {
+		if (diffMode) {
+			append(CLEAR);
+		}
+
+		Tile[][] tiles = board.getTiles();
+		String newLine = System.lineSeparator();
+		for (int y = 0; y < board.getHeight(); y++) {
+			for (int x = 0; x < board.getWidth(); x++) {
+				int code = codeOf(tiles[x][y]);
+				drawn[y * board.getWidth() + x] = code;
+				appendTile(code, coloured);
+			}
+
+			// the 1 - 26 key along the right side of the board
+			if (coloured) {
+				append(BLUE);
+				append(' ');
+				append(y + 1);
+				append(RESET);
+			} else {
+				append(' ');
+				append(y + 1);
+			}
+			append(newLine);
+		}
+
+		// the A-Z key along the bottom of the board
+		if (coloured) {
+			append(BLUE);
+		}
+		append('\n');
+		for (int x = 0; x < board.getWidth(); x++) {
+			append((char) ('A' + x));
+			if (coloured || x < board.getWidth() - 1) {
+				append(' ');
+			}
+		}
+		append('\n');
+		if (coloured) {
+			append(RESET);
+			append('\n');
+		}
+		append("\n\n");
+
+		frameLines = board.getHeight() + (coloured ? 5 : 4);
+		isDrawn = true;
+	}
+
+	/**
+	 * Puts together the tiles that changed since the last frame, each one moved to with the cursor, and then moves the
+	 * cursor to where a full frame would have left it
+	 *
+	 * @param coloured Is the frame coloured
+	 */
+	private void composeChanges(boolean coloured) {
+		Tile[][] tiles = board.getTiles();
+		int width = board.getWidth();
+		int last = -2;
+		for (int y = 0; y < board.getHeight(); y++) {
+			for (int x = 0; x < width; x++) {
+				int index = y * width + x;
+				int code = codeOf(tiles[x][y]);
+				if (code != drawn[index]) {
+					drawn[index] = code;
+					// tiles next to each other on a row don't need the cursor moving in between
+					if (index != last + 1 || x == 0) {
+						appendCursor(y + 1, x * 2 + 1);
+					}
+					appendTile(code, coloured);
+					last = index;
+				}
+			}
+		}
+		appendCursor(frameLines + 1, 1);
+	}
+
+	/**
+	 * Works out what a tile shows
+	 *
+	 * @param tile Tile to look at
+	 * @return what the tile shows and its character
+	 */
+	private int codeOf(Tile tile) {
+		if (tile instanceof BoundaryTile) {
+			return BOUNDARY << 16 | '█';
+		}
+		Player player = tile.getPlayer();
+		if (player != null) {
+			// players are numbered 1 to 6, so a digit is enough
+			char number = (char) ('0' + player.getPlayerNumber());
+			return (player.isCurrentPlayer() ? CURRENT_PLAYER : PLAYER) << 16 | number;
+		}
+		Weapon weapon = tile.getWeapon();
+		if (weapon != null) {
+			return WEAPON << 16 | weapon.getId();
+		}
+		return PLAIN << 16 | tile.getName();
+	}
+
+	/**
+	 * Adds a tile to the frame, followed by the space between tiles
+	 *
+	 * @param code What the tile shows
+	 * @param coloured Is the frame coloured
+	 */
+	private void appendTile(int code, boolean coloured) {
+		String colour = null;
+		if (coloured) {
+			switch (code >>> 16) {
+				case CURRENT_PLAYER:
+					colour = GREEN;
+					break;
+				case PLAYER:
+					colour = RED;
+					break;
+				case WEAPON:
+					colour = YELLOW;
+					break;
+			}
+		}
+
+		if (colour != null) {
+			append(colour);
+			append((char) code);
+			append(RESET);
+		} else {
+			append((char) code);
+		}
+		append(' ');
+	}
+
+	/**
+	 * Adds an ANSI cursor position to the frame
+	 *
+	 * @param row Row to move to, from 1
+	 * @param column Column to move to, from 1
+	 */
+	private void appendCursor(int row, int column) {
+		append("\u001B[");
+		append(row);
+		append(';');
+		append(column);
+		append('H');
+	}
+
+	/**
+	 * Adds a number to the frame
+	 *
+	 * @param number Number to add, which must not be negative
+	 */
+	private void append(int number) {
+		if (number >= 10) {
+			append(number / 10);
+		}
+		append((char) ('0' + number % 10));
+	}
+
+	/**
+	 * Adds text to the frame
+	 *
+	 * @param text Text to add
+	 */
+	private void append(String text) {
+		ensureCapacity(text.length());
+		text.getChars(0, text.length(), frame, length);
+		length += text.length();
+	}
+
+	/**
+	 * Adds a character to the frame
+	 *
+	 * @param c Character to add
+	 */
+	private void append(char c) {
+		ensureCapacity(1);
+		frame[length++] = c;
+	}
+
+	/**
+	 * Grows the frame buffer if there isn't room for more characters
+	 *
+	 * @param extra Number of characters about to be added
+	 */
+	private void ensureCapacity(int extra) {
+		if (length + extra > frame.length) {
+			char[] larger = new char[Math.max(frame.length * 2, length + extra)];
+			System.arraycopy(frame, 0, larger, 0, length);
+			frame = larger;
+		}
+	}
+
+	/**
+	 * Encodes the frame and writes it to the output in one go
+	 */
+	private void write() {
+		int capacity = (int) Math.ceil(length * encoder.maxBytesPerChar());
+		if (bytes.capacity() < capacity) {
+			bytes = ByteBuffer.allocate(capacity);
+		}
+		bytes.clear();
+		encoder.reset();
+		encoder.encode(CharBuffer.wrap(frame, 0, length), bytes, true);
+		encoder.flush(bytes);
+
+		out.write(bytes.array(), 0, bytes.position());
+		out.flush();
+	}
+}